@@ -0,0 +1,23 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.openjdk.jmh.Main;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    // Same command line as org.openjdk.jmh.Main, with the GC profiler on unless a profiler is chosen explicitly
+    public static void main(String[] args) throws Exception {
+        List<String> arguments = new ArrayList<>(Arrays.asList(args));
+        if (!arguments.contains("-prof") && !arguments.contains("-l") && !arguments.contains("-h")) {
+            arguments.add("-prof");
+            arguments.add("gc");
+        }
+        Main.main(arguments.toArray(new String[0]));
+    }
+}
@@ -0,0 +1,62 @@
+package com.apidoc.apidocumentation.doc;
+
+import java.lang.management.ManagementFactory;
+
+// Request-thread bytes allocated per captured request, checked against a budget.
+// The JMH gc profiler counts every thread, including the writer that decodes bodies off the request path;
+// this counts only the thread that serves the request. Exits with status 1 when a case is over budget.
+//   java -cp benchmarks/target/benchmarks.jar com.apidoc.apidocumentation.doc.CaptureAllocationCheck [budgetBytes]
+public final class CaptureAllocationCheck {
+
+    static final long DEFAULT_BUDGET_BYTES = 2048;
+    private static final int WARMUP_REQUESTS = 200_000;
+    private static final int MEASURED_REQUESTS = 100_000;
+    private static final int BATCH = 1_000;
+
+    private CaptureAllocationCheck() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        long budget = args.length > 0 ? Long.parseLong(args[0]) : DEFAULT_BUDGET_BYTES;
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        boolean overBudget = false;
+
+        for (CaptureLevel level : new CaptureLevel[]{CaptureLevel.FULL, CaptureLevel.TRUNCATED}) {
+            for (String method : new String[]{"GET", "POST"}) {
+                InterceptorBenchmark benchmark = new InterceptorBenchmark();
+                benchmark.method = method;
+                benchmark.captureLevel = level;
+                benchmark.setUp();
+                try {
+                    run(benchmark, WARMUP_REQUESTS, threads);
+                    long perRequest = run(benchmark, MEASURED_REQUESTS, threads) / MEASURED_REQUESTS;
+                    boolean over = perRequest > budget;
+                    overBudget |= over;
+                    System.err.printf("%-9s %-4s %6d B/request (budget %d)%s%n",
+                            level, method, perRequest, budget, over ? "  OVER BUDGET" : "");
+                } finally {
+                    benchmark.tearDown();
+                }
+            }
+        }
+        System.exit(overBudget ? 1 : 0);
+    }
+
+    // Waits for the writer between batches so no request is dropped; only the request loop is counted
+    private static long run(InterceptorBenchmark benchmark, int requests,
+                            com.sun.management.ThreadMXBean threads) throws Exception {
+        long threadId = Thread.currentThread().getId();
+        long allocated = 0;
+        for (int done = 0; done < requests; done += BATCH) {
+            long before = threads.getThreadAllocatedBytes(threadId);
+            for (int i = 0; i < BATCH; i++) {
+                benchmark.fullRequest();
+            }
+            allocated += threads.getThreadAllocatedBytes(threadId) - before;
+            while (benchmark.queueSize() > 0) {
+                Thread.sleep(1);
+            }
+        }
+        return allocated;
+    }
+}
@@ -0,0 +1,119 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.context.support.StaticApplicationContext;
+import org.springframework.mock.web.MockServletContext;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DocumentationGenerationBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int endpoints;
+
+    // "warm" regenerates an unchanged API; "cold" drops every cached model and fragment first
+    @Param({"warm", "cold"})
+    public String cache;
+
+    private Path docDirectory;
+    private Path logDirectory;
+    private DocumentationGenerationCoordinator coordinator;
+    private DocumentationFragmentCache fragmentCache;
+    private CompleteDocumentationService service;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        docDirectory = BenchmarkFixtures.createTempDirectory("docs");
+        logDirectory = BenchmarkFixtures.createTempDirectory("logs");
+
+        coordinator = new DocumentationGenerationCoordinator();
+        ReflectionTestUtils.setField(coordinator, "debounceMillis", 0L);
+
+        ApiLogFileService logService = BenchmarkFixtures.logFileService(logDirectory, "json", true);
+        ApiDocumentationService apiDocService = new ApiDocumentationService(new StaticApplicationContext(), coordinator,
+                ApiDocMetrics.noop(), logService);
+        @SuppressWarnings("unchecked")
+        Map<String, ApiEndpointInfo> registry = (Map<String, ApiEndpointInfo>) ReflectionTestUtils.getField(apiDocService, "apiRegistry");
+        for (int i = 0; i < endpoints; i++) {
+            ApiEndpointInfo endpoint = BenchmarkFixtures.endpoint(i, Math.max(1, endpoints / 50));
+            registry.put(endpoint.getMethod() + ":" + endpoint.getPath(), endpoint);
+        }
+
+        EndpointKeyResolver keyResolver = new EndpointKeyResolver(apiDocService);
+        ReflectionTestUtils.setField(keyResolver, "contextPath", "");
+        EndpointShapeLearner shapeLearner = new EndpointShapeLearner(BenchmarkFixtures.OBJECT_MAPPER, keyResolver);
+        ApiSampleCache sampleCache = new ApiSampleCache(keyResolver, logService);
+        // Tracks nothing, so generation is measured without slow request tables
+        SlowRequestTracker requestTracker = new SlowRequestTracker(keyResolver, logService);
+        ReflectionTestUtils.setField(requestTracker, "enabled", false);
+        ReflectionTestUtils.setField(requestTracker, "windowMinutes", 60L);
+        ReflectionTestUtils.setField(requestTracker, "logDirectory", logDirectory.toString());
+        requestTracker.init();
+        LocalDateTime now = LocalDateTime.now();
+        for (ApiEndpointInfo endpoint : registry.values()) {
+            ApiLog log = BenchmarkFixtures.log(endpoint.getMethod(), endpoint.getPath().replace("{id}", "7"), 7, now);
+            shapeLearner.onLog(log);
+            sampleCache.onLog(log);
+        }
+
+        fragmentCache = new DocumentationFragmentCache();
+        HtmlDocumentationRenderer html = new HtmlDocumentationRenderer(fragmentCache);
+        ReflectionTestUtils.setField(html, "htmlMode", "single");
+        OpenApiDocumentationRenderer openApi = new OpenApiDocumentationRenderer();
+        ReflectionTestUtils.setField(openApi, "splitByTag", false);
+        List<DocumentationRenderer> renderers = List.of(
+                new JsonDocumentationRenderer(fragmentCache),
+                new MarkdownDocumentationRenderer(fragmentCache),
+                html,
+                new PostmanCollectionRenderer(fragmentCache),
+                openApi);
+
+        DocumentationArtifactService artifactService = new DocumentationArtifactService();
+        ReflectionTestUtils.setField(artifactService, "docDirectory", docDirectory.toString());
+
+        service = new CompleteDocumentationService(apiDocService, shapeLearner, sampleCache, requestTracker, renderers,
+                fragmentCache, artifactService, coordinator, ApiDocMetrics.noop(), new ServerProperties(),
+                new MockServletContext());
+        ReflectionTestUtils.setField(service, "serverPort", "8080");
+        ReflectionTestUtils.setField(service, "contextPath", "");
+        ReflectionTestUtils.setField(service, "docDirectory", docDirectory.toString());
+        ReflectionTestUtils.setField(service, "applicationName", "benchmark");
+        ReflectionTestUtils.setField(service, "apiVersion", "1.0.0");
+        ReflectionTestUtils.setField(service, "apiDescription", "Benchmark API");
+        ReflectionTestUtils.setField(service, "renderThreads", 0);
+        service.init();
+    }
+
+    @Setup(Level.Invocation)
+    public void dropCaches() {
+        if ("cold".equals(cache)) {
+            fragmentCache.clear();
+            ((Map<?, ?>) ReflectionTestUtils.getField(service, "endpointModelCache")).clear();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        service.shutdown();
+        coordinator.shutdown();
+        BenchmarkFixtures.deleteRecursively(docDirectory);
+        BenchmarkFixtures.deleteRecursively(logDirectory);
+    }
+
+    @Benchmark
+    public Map<String, Object> generateCompleteDocumentation() throws Exception {
+        return service.generateCompleteDocumentation();
+    }
+}
@@ -0,0 +1,107 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterceptorBenchmark {
+
+    @Param({"GET", "POST"})
+    public String method;
+
+    @Param({"FULL", "TRUNCATED", "HEADERS_ONLY", "COUNTERS_ONLY"})
+    public CaptureLevel captureLevel;
+
+    private ApiLogDispatcher dispatcher;
+    private ApiLoggingInterceptor interceptor;
+    private CaptureBufferPool bufferPool;
+    private CaptureSpillStore spillStore;
+    private Path logDirectory;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse servletResponse;
+    private byte[] responseBody;
+    private HandlerMethod handler;
+    private Map<String, Object> requestBody;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // Never started, so the level stays where the benchmark pins it
+        CaptureGovernor governor = new CaptureGovernor();
+        ReflectionTestUtils.setField(governor, "level", captureLevel);
+        ReflectionTestUtils.setField(governor, "truncateBytes", 64);
+        dispatcher = new ApiLogDispatcher(BenchmarkFixtures.discardingLogFileService(), BenchmarkFixtures.OBJECT_MAPPER,
+                List.of(), governor, 10_000);
+        logDirectory = BenchmarkFixtures.createTempDirectory("interceptor");
+        spillStore = BenchmarkFixtures.spillStore(logDirectory);
+        interceptor = new ApiLoggingInterceptor(dispatcher, ApiDocMetrics.noop(), governor,
+                BenchmarkFixtures.capturePlanRegistry(), spillStore);
+        bufferPool = new CaptureBufferPool(32);
+
+        boolean get = "GET".equals(method);
+        BenchmarkFixtures.SampleController controller = new BenchmarkFixtures.SampleController();
+        handler = get
+                ? new HandlerMethod(controller, BenchmarkFixtures.SampleController.class.getMethod("getUser", Long.class, String.class))
+                : new HandlerMethod(controller, BenchmarkFixtures.SampleController.class.getMethod("updateUser", Long.class, Map.class));
+
+        request = new MockHttpServletRequest(method, "/api/users/42");
+        request.setRemoteAddr("10.0.0.12");
+        BenchmarkFixtures.requestHeaders().forEach(request::addHeader);
+        request.addParameter("verbose", "true");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/users/{id}");
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "42"));
+        requestBody = get ? null : BenchmarkFixtures.user(42);
+
+        servletResponse = new MockHttpServletResponse();
+        servletResponse.setStatus(200);
+        servletResponse.setContentType("application/json");
+        responseBody = BenchmarkFixtures.OBJECT_MAPPER.writeValueAsBytes(BenchmarkFixtures.user(42));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dispatcher.shutdown();
+        BenchmarkFixtures.deleteRecursively(logDirectory);
+    }
+
+    int queueSize() {
+        return dispatcher.getQueueSize();
+    }
+
+    @Benchmark
+    public boolean preHandle() throws Exception {
+        CapturingResponseWrapper response = new CapturingResponseWrapper(servletResponse, bufferPool, spillStore);
+        boolean proceed = interceptor.preHandle(request, response, handler);
+        response.finish();
+        ApiLogContext.clear();
+        return proceed;
+    }
+
+    // The wrapper ResponseCachingFilter puts around every request is part of the per-request cost
+    @Benchmark
+    public void fullRequest() throws Exception {
+        servletResponse.resetBuffer();
+        CapturingResponseWrapper response = new CapturingResponseWrapper(servletResponse, bufferPool, spillStore);
+        interceptor.preHandle(request, response, handler);
+        if (requestBody != null) {
+            // What ApiLoggingRequestBodyAdvice records once the body has been read
+            ApiLogContext.setRequestBody(requestBody);
+        }
+        response.getOutputStream().write(responseBody);
+        interceptor.afterCompletion(request, response, handler, null);
+        response.finish();
+    }
+}
@@ -0,0 +1,97 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LargeBodyCaptureBenchmark {
+
+    private static final int CAPTURE_LIMIT = 64 * 1024 * 1024;
+
+    @Param({"1048576", "16777216"})
+    public int bodySize;
+
+    // Integer.MAX_VALUE keeps every body in memory, the behaviour before spilling existed
+    @Param({"262144", "2147483647"})
+    public int spillThreshold;
+
+    private Path logDirectory;
+    private CaptureBufferPool bufferPool;
+    private CaptureSpillStore spillStore;
+    private DiscardingResponse servletResponse;
+    private byte[] body;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        logDirectory = BenchmarkFixtures.createTempDirectory("large-body");
+        spillStore = BenchmarkFixtures.spillStore(logDirectory);
+        ReflectionTestUtils.setField(spillStore, "thresholdBytes", spillThreshold);
+        bufferPool = new CaptureBufferPool(32);
+        servletResponse = new DiscardingResponse();
+        body = new byte[bodySize];
+        Arrays.fill(body, (byte) 'x');
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(logDirectory);
+    }
+
+    // The client write is discarded so only the captured copy shows up in time and allocation
+    @Benchmark
+    public long captureAndRelease() throws Exception {
+        CapturingResponseWrapper response = new CapturingResponseWrapper(servletResponse, bufferPool, spillStore);
+        response.startCapture(CAPTURE_LIMIT);
+        ServletOutputStream out = response.getOutputStream();
+        for (int offset = 0; offset < body.length; offset += 8192) {
+            out.write(body, offset, Math.min(8192, body.length - offset));
+        }
+        CaptureBuffer capture = response.detachCapture();
+        long captured = capture.getTotalBytes();
+        if (capture.isSpilled()) {
+            capture.toBodyFile();
+        }
+        capture.release();
+        response.finish();
+        return captured;
+    }
+
+    private static final class DiscardingResponse extends MockHttpServletResponse {
+
+        private final ServletOutputStream discard = new ServletOutputStream() {
+            @Override
+            public void write(int b) {
+            }
+
+            @Override
+            public void write(byte[] bytes, int offset, int length) {
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+            }
+        };
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return discard;
+        }
+    }
+}
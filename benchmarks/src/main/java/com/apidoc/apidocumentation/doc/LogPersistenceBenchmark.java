@@ -0,0 +1,54 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LogPersistenceBenchmark {
+
+    @Param({"json", "txt"})
+    public String format;
+
+    @Param({"true", "false"})
+    public boolean replaceLatest;
+
+    // Other files already in the log directory; saving should not slow down as it grows
+    @Param({"0", "1000"})
+    public int existingLogs;
+
+    private Path directory;
+    private ApiLogFileService logService;
+    private int counter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createTempDirectory("persist");
+        logService = BenchmarkFixtures.logFileService(directory, format, false);
+        LocalDateTime start = LocalDateTime.now().minusDays(1);
+        for (int i = 0; i < existingLogs; i++) {
+            logService.saveLog(BenchmarkFixtures.log("GET", "/api/other" + (i % 50) + "/" + i, i, start.plusNanos(i * 1_000_000L)));
+        }
+        logService = BenchmarkFixtures.logFileService(directory, format, replaceLatest);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public void saveLog() {
+        int id = counter++;
+        // Distinct timestamps so append mode creates a new file per call instead of overwriting
+        logService.saveLog(BenchmarkFixtures.log("POST", "/api/users/" + (id % 20), id,
+                LocalDateTime.now().plusNanos((id % 1000) * 1_000_000L)));
+    }
+}
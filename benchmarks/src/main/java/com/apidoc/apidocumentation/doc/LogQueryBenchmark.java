@@ -0,0 +1,75 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class LogQueryBenchmark {
+
+    private static final int ENDPOINTS = 100;
+    private static final int DAYS = 10;
+
+    @Param({"10000", "100000", "1000000"})
+    public int entries;
+
+    private Path directory;
+    private ApiLogFileService logService;
+    private LocalDate queryDate;
+
+    // Files are laid out exactly as append mode names them, written directly to keep setup time reasonable
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createTempDirectory("query");
+        logService = BenchmarkFixtures.logFileService(directory, "json", false);
+
+        LocalDateTime start = LocalDate.now().minusDays(DAYS - 1).atStartOfDay();
+        DateTimeFormatter time = DateTimeFormatter.ofPattern("HHmmss-SSS");
+        byte[][] bodies = new byte[ENDPOINTS][];
+        for (int e = 0; e < ENDPOINTS; e++) {
+            ApiLog log = BenchmarkFixtures.log("GET", "/api/items" + e + "/" + e, e, start);
+            String json = BenchmarkFixtures.OBJECT_MAPPER.writeValueAsString(log);
+            bodies[e] = json.getBytes(StandardCharsets.UTF_8);
+        }
+        for (int i = 0; i < entries; i++) {
+            int endpoint = i % ENDPOINTS;
+            LocalDateTime timestamp = start.plusDays(i % DAYS).plusNanos((long) (i / DAYS) * 1_000_000L);
+            String name = String.format("%s_GET__api_items%d_%d_%s_%d.json",
+                    timestamp.toLocalDate(), endpoint, endpoint, timestamp.format(time), i);
+            Files.write(directory.resolve(name), bodies[endpoint]);
+        }
+        queryDate = start.toLocalDate().plusDays(DAYS / 2);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public List<ApiLog> getLogsByEndpoint() {
+        return logService.getLogsByEndpoint("/api/items7/7");
+    }
+
+    @Benchmark
+    public List<ApiLog> getLogsByDate() {
+        return logService.getLogsByDate(queryDate);
+    }
+
+    @Benchmark
+    public List<ApiLog> getAllLogs() {
+        return logService.getAllLogs();
+    }
+}
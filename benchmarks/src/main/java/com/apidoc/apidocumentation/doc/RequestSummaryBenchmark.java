@@ -0,0 +1,84 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.openjdk.jmh.annotations.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class RequestSummaryBenchmark {
+
+    private static final int ENDPOINTS = 200;
+    private static final long SPAN_MILLIS = TimeUnit.DAYS.toMillis(7);
+
+    @Param({"1000000", "10000000"})
+    public int rows;
+
+    private Path directory;
+    private RequestSummaryStore store;
+    private LocalDateTime lastDayStart;
+    private LocalDateTime lastDayEnd;
+
+    // Rows go in through onLog exactly as the writer thread appends them, one week of traffic in order
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        directory = BenchmarkFixtures.createTempDirectory("summary");
+        store = new RequestSummaryStore();
+        ReflectionTestUtils.setField(store, "enabled", true);
+        ReflectionTestUtils.setField(store, "maxRows", (long) rows);
+        ReflectionTestUtils.setField(store, "logDirectory", directory.toString());
+        store.init();
+
+        SplittableRandom random = new SplittableRandom(42);
+        long start = System.currentTimeMillis() - SPAN_MILLIS;
+        ApiLog log = new ApiLog();
+        for (int i = 0; i < rows; i++) {
+            int endpoint = random.nextInt(ENDPOINTS);
+            log.setEndpoint("/api/resource" + (endpoint % 50) + "/{id}/items" + endpoint);
+            log.setMethod(endpoint % 4 == 0 ? "POST" : "GET");
+            int roll = random.nextInt(1000);
+            log.setStatusCode(roll < 5 ? 500 : roll < 30 ? 404 : 200);
+            log.setExecutionTime((long) (1 + random.nextInt(20) + (roll % 100 == 0 ? random.nextInt(2000) : 0)));
+            log.setCapturedAt(start + SPAN_MILLIS * i / rows);
+            store.onLog(log);
+        }
+        LocalDateTime end = LocalDateTime.ofInstant(Instant.ofEpochMilli(start + SPAN_MILLIS), ZoneId.systemDefault());
+        lastDayEnd = end;
+        lastDayStart = end.minusDays(1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BenchmarkFixtures.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public RequestSummary groupByEndpoint() {
+        return store.summarize("endpoint", null, null, null, null, null);
+    }
+
+    @Benchmark
+    public RequestSummary serverErrorsByEndpointLastDay() {
+        return store.summarize("endpoint", lastDayStart, lastDayEnd, null, null, "5xx");
+    }
+
+    @Benchmark
+    public RequestSummary percentilesForOneEndpoint() {
+        return store.summarize("none", null, null, "/api/resource7/{id}/items57", "GET", null);
+    }
+
+    @Benchmark
+    public RequestSummary groupByStatus() {
+        return store.summarize("status", null, null, null, null, null);
+    }
+}
@@ -0,0 +1,63 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.servlet.FilterChain;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResponseCachingFilterBenchmark {
+
+    @Param({"256", "16384", "1048576"})
+    public int bodySize;
+
+    private ApiLogDispatcher dispatcher;
+    private ResponseCachingFilter filter;
+    private MockHttpServletRequest request;
+    private FilterChain chain;
+    private Path logDirectory;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        // No interceptor runs here, so nothing is ever dispatched
+        dispatcher = new ApiLogDispatcher(BenchmarkFixtures.discardingLogFileService(), BenchmarkFixtures.OBJECT_MAPPER,
+                List.of(), new CaptureGovernor(), 1);
+        logDirectory = BenchmarkFixtures.createTempDirectory("filter");
+        filter = new ResponseCachingFilter(dispatcher, BenchmarkFixtures.capturePlanRegistry(), new CaptureBufferPool(32),
+                BenchmarkFixtures.spillStore(logDirectory));
+        request = new MockHttpServletRequest("GET", "/api/users");
+
+        byte[] body = new byte[bodySize];
+        Arrays.fill(body, (byte) 'x');
+        // Written in 8 KB chunks like a message converter would
+        chain = (req, res) -> {
+            res.setContentType("application/json");
+            for (int offset = 0; offset < body.length; offset += 8192) {
+                res.getOutputStream().write(body, offset, Math.min(8192, body.length - offset));
+            }
+        };
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        dispatcher.shutdown();
+        BenchmarkFixtures.deleteRecursively(logDirectory);
+    }
+
+    @Benchmark
+    public MockHttpServletResponse doFilter() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,95 @@
+package com.apidoc.apidocumentation.harness;
+
+import com.apidoc.apidocumentation.doc.ApiDoc;
+import com.apidoc.apidocumentation.doc.ApiDocClass;
+import net.bytebuddy.ByteBuddy;
+import net.bytebuddy.description.annotation.AnnotationDescription;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.dynamic.DynamicType;
+import net.bytebuddy.dynamic.loading.ClassLoadingStrategy;
+import net.bytebuddy.implementation.MethodDelegation;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Builds N @ApiDocClass controllers with M handler methods each; even methods are GETs, odd ones POSTs
+class ControllerGenerator {
+
+    private final HarnessConfig config;
+
+    ControllerGenerator(HarnessConfig config) {
+        this.config = config;
+    }
+
+    List<Class<?>> generate() {
+        List<PayloadResponder> responders = new ArrayList<>();
+        for (int size : config.payloadSizes()) {
+            responders.add(new PayloadResponder(size));
+        }
+
+        List<Class<?>> controllers = new ArrayList<>();
+        for (int c = 0; c < config.controllers(); c++) {
+            // Class names must not contain '$', which the library treats as a proxy suffix
+            DynamicType.Builder<Object> builder = new ByteBuddy()
+                    .subclass(Object.class)
+                    .name(getClass().getPackageName() + ".generated.SyntheticController" + c)
+                    .annotateType(
+                            AnnotationDescription.Builder.ofType(RestController.class).build(),
+                            AnnotationDescription.Builder.ofType(ApiDocClass.class).build(),
+                            AnnotationDescription.Builder.ofType(RequestMapping.class)
+                                    .defineArray("value", controllerPath(c)).build());
+
+            for (int m = 0; m < config.methods(); m++) {
+                PayloadResponder responder = responders.get(m % responders.size());
+                AnnotationDescription apiDoc = AnnotationDescription.Builder.ofType(ApiDoc.class)
+                        .define("description", "Synthetic operation " + c + "." + m)
+                        .defineArray("tags", "controller-" + c)
+                        .build();
+                if (isGet(m)) {
+                    builder = builder.defineMethod("get" + m, Object.class, Visibility.PUBLIC)
+                            .withParameter(String.class, "id")
+                            .annotateParameter(AnnotationDescription.Builder.ofType(PathVariable.class)
+                                    .define("value", "id").build())
+                            .withParameter(String.class, "filter")
+                            .annotateParameter(AnnotationDescription.Builder.ofType(RequestParam.class)
+                                    .define("value", "filter").define("required", false).build())
+                            .intercept(MethodDelegation.to(responder))
+                            .annotateMethod(AnnotationDescription.Builder.ofType(GetMapping.class)
+                                    .defineArray("value", methodPath(m) + "/{id}").build(), apiDoc);
+                } else {
+                    builder = builder.defineMethod("post" + m, Object.class, Visibility.PUBLIC)
+                            .withParameter(Map.class, "body")
+                            .annotateParameter(AnnotationDescription.Builder.ofType(RequestBody.class).build())
+                            .intercept(MethodDelegation.to(responder))
+                            .annotateMethod(AnnotationDescription.Builder.ofType(PostMapping.class)
+                                    .defineArray("value", methodPath(m)).build(), apiDoc);
+                }
+            }
+
+            controllers.add(builder.make()
+                    .load(getClass().getClassLoader(), ClassLoadingStrategy.Default.WRAPPER)
+                    .getLoaded());
+        }
+        return controllers;
+    }
+
+    static boolean isGet(int method) {
+        return method % 2 == 0;
+    }
+
+    static String controllerPath(int controller) {
+        return "/api/synthetic" + controller;
+    }
+
+    static String methodPath(int method) {
+        return "/op" + method;
+    }
+}
@@ -0,0 +1,19 @@
+package com.apidoc.apidocumentation.harness;
+
+import org.springframework.boot.SpringBootConfiguration;
+import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Deliberately not a @SpringBootApplication: the library is only picked up when LibraryConfiguration is added
+@SpringBootConfiguration
+@EnableAutoConfiguration
+public class HarnessApplication {
+
+    @Configuration
+    @EnableScheduling
+    @ComponentScan("com.apidoc.apidocumentation.doc")
+    static class LibraryConfiguration {
+    }
+}
@@ -0,0 +1,72 @@
+package com.apidoc.apidocumentation.harness;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Options are passed as --name=value
+record HarnessConfig(
+        int controllers,
+        int methods,
+        int[] payloadSizes,
+        int concurrency,
+        int warmupSeconds,
+        int durationSeconds,
+        List<String> modes,
+        String report,
+        String mode) {
+
+    static final String MODE_WITH_LIBRARY = "with-library";
+    static final String MODE_WITHOUT_LIBRARY = "without-library";
+
+    static HarnessConfig parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return new HarnessConfig(
+                Integer.parseInt(options.getOrDefault("controllers", "50")),
+                Integer.parseInt(options.getOrDefault("methods", "20")),
+                Arrays.stream(options.getOrDefault("payload-sizes", "128,2048,32768").split(","))
+                        .mapToInt(Integer::parseInt).toArray(),
+                Integer.parseInt(options.getOrDefault("concurrency", "64")),
+                Integer.parseInt(options.getOrDefault("warmup", "15")),
+                Integer.parseInt(options.getOrDefault("duration", "30")),
+                List.of(options.getOrDefault("modes", MODE_WITHOUT_LIBRARY + "," + MODE_WITH_LIBRARY).split(",")),
+                options.getOrDefault("report", "harness-report.json"),
+                options.get("mode"));
+    }
+
+    // Arguments for a child JVM that measures a single mode
+    List<String> toArgs(String childMode, String resultFile) {
+        List<String> args = new ArrayList<>();
+        args.add("--controllers=" + controllers);
+        args.add("--methods=" + methods);
+        args.add("--payload-sizes=" + String.join(",", Arrays.stream(payloadSizes).mapToObj(String::valueOf).toList()));
+        args.add("--concurrency=" + concurrency);
+        args.add("--warmup=" + warmupSeconds);
+        args.add("--duration=" + durationSeconds);
+        args.add("--report=" + resultFile);
+        args.add("--mode=" + childMode);
+        return args;
+    }
+
+    Map<String, Object> describe() {
+        Map<String, Object> description = new java.util.LinkedHashMap<>();
+        description.put("controllers", controllers);
+        description.put("methodsPerController", methods);
+        description.put("endpoints", controllers * methods);
+        description.put("payloadSizes", payloadSizes);
+        description.put("concurrency", concurrency);
+        description.put("warmupSeconds", warmupSeconds);
+        description.put("durationSeconds", durationSeconds);
+        description.put("javaVersion", System.getProperty("java.version"));
+        description.put("availableProcessors", Runtime.getRuntime().availableProcessors());
+        return description;
+    }
+}
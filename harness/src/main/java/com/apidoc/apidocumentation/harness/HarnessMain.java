@@ -0,0 +1,143 @@
+package com.apidoc.apidocumentation.harness;
+
+import com.apidoc.apidocumentation.doc.ApiLogDispatcher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.boot.Banner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Without --mode this orchestrates one child JVM per mode and writes the combined report;
+// with --mode it boots the synthetic app, drives load against it and writes that mode's result
+public class HarnessMain {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    public static void main(String[] args) throws Exception {
+        HarnessConfig config = HarnessConfig.parse(args);
+        if (config.mode() != null) {
+            runMode(config);
+            System.exit(0);
+        }
+        orchestrate(config);
+    }
+
+    private static void orchestrate(HarnessConfig config) throws Exception {
+        Map<String, Map<String, Object>> results = new LinkedHashMap<>();
+        for (String mode : config.modes()) {
+            // A fresh JVM per mode keeps JIT state, heap and class loading of one run out of the other
+            Path resultFile = Files.createTempFile("apidoc-harness-" + mode, ".json");
+            List<String> command = new ArrayList<>();
+            command.add(ProcessHandle.current().info().command().orElse("java"));
+            command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+            command.add(HarnessMain.class.getName());
+            command.addAll(config.toArgs(mode, resultFile.toString()));
+
+            System.out.println("Running " + mode + " ...");
+            int exit = new ProcessBuilder(command).inheritIO().start().waitFor();
+            if (exit != 0) {
+                throw new IllegalStateException("Harness run for " + mode + " failed with exit code " + exit);
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> result = OBJECT_MAPPER.readValue(resultFile.toFile(), Map.class);
+            results.put(mode, result);
+            Files.deleteIfExists(resultFile);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("config", config.describe());
+        report.put("results", results);
+        if (results.containsKey(HarnessConfig.MODE_WITHOUT_LIBRARY) && results.containsKey(HarnessConfig.MODE_WITH_LIBRARY)) {
+            report.put("overhead", compare(results.get(HarnessConfig.MODE_WITHOUT_LIBRARY), results.get(HarnessConfig.MODE_WITH_LIBRARY)));
+        }
+        OBJECT_MAPPER.writeValue(new File(config.report()), report);
+        System.out.println(OBJECT_MAPPER.writeValueAsString(report.getOrDefault("overhead", results)));
+        System.out.println("Report written to " + config.report());
+    }
+
+    private static void runMode(HarnessConfig config) throws Exception {
+        boolean withLibrary = HarnessConfig.MODE_WITH_LIBRARY.equals(config.mode());
+        Path workDirectory = Files.createTempDirectory("apidoc-harness");
+        List<Class<?>> controllers = new ControllerGenerator(config).generate();
+
+        List<Class<?>> sources = new ArrayList<>();
+        sources.add(HarnessApplication.class);
+        if (withLibrary) {
+            sources.add(HarnessApplication.LibraryConfiguration.class);
+        }
+        SpringApplication application = new SpringApplication(sources.toArray(new Class<?>[0]));
+        application.setBannerMode(Banner.Mode.OFF);
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("server.port", "0");
+        properties.put("logging.level.root", "WARN");
+        properties.put("apidoc.log.directory", workDirectory.resolve("logs").toString());
+        properties.put("apidoc.doc.directory", workDirectory.resolve("docs").toString());
+        application.setDefaultProperties(properties);
+        application.addInitializers(context -> controllers.forEach(type -> ((GenericApplicationContext) context).registerBean(type)));
+
+        try (ConfigurableApplicationContext context = application.run()) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            LoadGenerator load = new LoadGenerator(config, port, OBJECT_MAPPER);
+            load.warmUp();
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("mode", config.mode());
+            result.put("endpoints", config.controllers() * config.methods());
+            result.putAll(load.measure());
+            if (withLibrary) {
+                ApiLogDispatcher dispatcher = context.getBean(ApiLogDispatcher.class);
+                result.put("droppedLogs", dispatcher.getDroppedLogs());
+                result.put("logQueueSize", dispatcher.getQueueSize());
+            }
+            OBJECT_MAPPER.writeValue(new File(config.report()), result);
+        } finally {
+            FileSystemUtils.deleteRecursively(workDirectory);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> compare(Map<String, Object> baseline, Map<String, Object> candidate) {
+        Map<String, Object> overhead = new LinkedHashMap<>();
+        overhead.put("throughputChangePercent", percentChange(baseline.get("throughputPerSecond"), candidate.get("throughputPerSecond")));
+
+        Map<String, Object> baseLatency = (Map<String, Object>) baseline.get("latencyMicros");
+        Map<String, Object> candidateLatency = (Map<String, Object>) candidate.get("latencyMicros");
+        Map<String, Object> latency = new LinkedHashMap<>();
+        for (String percentile : List.of("p50", "p99", "p999")) {
+            Map<String, Object> delta = new LinkedHashMap<>();
+            delta.put("deltaMicros", number(candidateLatency.get(percentile)) - number(baseLatency.get(percentile)));
+            delta.put("changePercent", percentChange(baseLatency.get(percentile), candidateLatency.get(percentile)));
+            latency.put(percentile, delta);
+        }
+        overhead.put("latency", latency);
+
+        overhead.put("allocatedBytesPerRequestDelta",
+                number(candidate.get("allocatedBytesPerRequest")) - number(baseline.get("allocatedBytesPerRequest")));
+        overhead.put("allocationRateChangePercent",
+                percentChange(baseline.get("allocationRateMBPerSecond"), candidate.get("allocationRateMBPerSecond")));
+        return overhead;
+    }
+
+    private static double percentChange(Object baseline, Object candidate) {
+        double base = number(baseline);
+        return base == 0 ? 0 : (number(candidate) - base) / base * 100;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number number ? number.doubleValue() : 0;
+    }
+}
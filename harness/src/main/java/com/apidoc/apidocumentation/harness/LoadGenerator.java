@@ -0,0 +1,177 @@
+package com.apidoc.apidocumentation.harness;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load: each virtual thread sends its next request as soon as the previous one completes
+class LoadGenerator {
+
+    private final HarnessConfig config;
+    private final List<HttpRequest> requests;
+    private final HttpClient client;
+    private final AtomicLong errors = new AtomicLong();
+
+    LoadGenerator(HarnessConfig config, int port, ObjectMapper objectMapper) throws Exception {
+        this.config = config;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        List<HttpRequest> all = new ArrayList<>();
+        for (int c = 0; c < config.controllers(); c++) {
+            for (int m = 0; m < config.methods(); m++) {
+                String url = "http://localhost:" + port + ControllerGenerator.controllerPath(c) + ControllerGenerator.methodPath(m);
+                if (ControllerGenerator.isGet(m)) {
+                    all.add(HttpRequest.newBuilder(URI.create(url + "/" + (c * 1000 + m) + "?filter=active"))
+                            .header("Accept", "application/json")
+                            .GET().build());
+                } else {
+                    int size = config.payloadSizes()[m % config.payloadSizes().length];
+                    byte[] body = objectMapper.writeValueAsBytes(PayloadResponder.payload(size));
+                    all.add(HttpRequest.newBuilder(URI.create(url))
+                            .header("Accept", "application/json")
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofByteArray(body)).build());
+                }
+            }
+        }
+        this.requests = all;
+    }
+
+    void warmUp() throws Exception {
+        drive(config.warmupSeconds(), false);
+    }
+
+    Map<String, Object> measure() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        errors.set(0);
+        long gcCountBefore = gcCount();
+        long gcTimeBefore = gcTime();
+        long allocatedBefore = threads.getTotalThreadAllocatedBytes();
+        long start = System.nanoTime();
+
+        long[] latencies = drive(config.durationSeconds(), true);
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        long allocated = threads.getTotalThreadAllocatedBytes() - allocatedBefore;
+        Arrays.sort(latencies);
+
+        Map<String, Object> latency = new LinkedHashMap<>();
+        latency.put("p50", percentileMicros(latencies, 0.50));
+        latency.put("p90", percentileMicros(latencies, 0.90));
+        latency.put("p99", percentileMicros(latencies, 0.99));
+        latency.put("p999", percentileMicros(latencies, 0.999));
+        latency.put("max", latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1000.0);
+        latency.put("mean", latencies.length == 0 ? 0 : Arrays.stream(latencies).average().orElse(0) / 1000.0);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("requests", latencies.length);
+        result.put("errors", errors.get());
+        result.put("durationSeconds", seconds);
+        result.put("throughputPerSecond", latencies.length / seconds);
+        result.put("latencyMicros", latency);
+        // Client and server share the JVM; the client side is identical in both modes, so differences are the library's
+        result.put("allocatedBytes", allocated);
+        result.put("allocatedBytesPerRequest", latencies.length == 0 ? 0 : (double) allocated / latencies.length);
+        result.put("allocationRateMBPerSecond", allocated / seconds / (1024 * 1024));
+        result.put("gcCount", gcCount() - gcCountBefore);
+        result.put("gcTimeMillis", gcTime() - gcTimeBefore);
+        return result;
+    }
+
+    private long[] drive(int seconds, boolean record) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        List<Future<LatencyBuffer>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < config.concurrency(); i++) {
+                workers.add(executor.submit(() -> {
+                    LatencyBuffer buffer = new LatencyBuffer();
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = requests.get(ThreadLocalRandom.current().nextInt(requests.size()));
+                        long begin = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                                continue;
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                        if (record) {
+                            buffer.add(System.nanoTime() - begin);
+                        }
+                    }
+                    return buffer;
+                }));
+            }
+        }
+
+        LatencyBuffer merged = new LatencyBuffer();
+        for (Future<LatencyBuffer> worker : workers) {
+            merged.addAll(worker.get());
+        }
+        return merged.toArray();
+    }
+
+    private static double percentileMicros(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1000.0;
+    }
+
+    private static long gcCount() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionCount).sum();
+    }
+
+    private static long gcTime() {
+        return ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .mapToLong(GarbageCollectorMXBean::getCollectionTime).sum();
+    }
+
+    private static class LatencyBuffer {
+        private long[] values = new long[1024];
+        private int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        void addAll(LatencyBuffer other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        long[] toArray() {
+            return Arrays.copyOf(values, size);
+        }
+    }
+}
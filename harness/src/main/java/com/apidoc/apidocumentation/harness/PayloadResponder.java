@@ -0,0 +1,44 @@
+package com.apidoc.apidocumentation.harness;
+
+import net.bytebuddy.implementation.bind.annotation.AllArguments;
+import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Target of every generated handler method; returns a payload of roughly the configured JSON size
+public class PayloadResponder {
+
+    private final Map<String, Object> payload;
+
+    public PayloadResponder(int approximateBytes) {
+        this.payload = payload(approximateBytes);
+    }
+
+    @RuntimeType
+    public Object respond(@AllArguments Object[] arguments) {
+        Map<String, Object> response = new LinkedHashMap<>(payload);
+        response.put("arguments", arguments.length);
+        return response;
+    }
+
+    static Map<String, Object> payload(int approximateBytes) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", 42);
+        payload.put("name", "synthetic");
+        payload.put("active", true);
+        // Each item serializes to roughly 64 bytes
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, approximateBytes / 64); i++) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("index", i);
+            item.put("label", "item-" + i);
+            item.put("price", i * 1.25);
+            items.add(item);
+        }
+        payload.put("items", items);
+        return payload;
+    }
+}
@@ -0,0 +1,31 @@
+package com.apidoc.apidocumentation.doc;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.apidoc.Capture")
+@Label("API Capture")
+@Category({"API Documentation", "Capture"})
+@Description("Request thread time spent turning an exchange into an API log")
+@StackTrace(false)
+@Threshold("10 ms")
+class ApiCaptureEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Status Code")
+    int statusCode;
+
+    @Label("Bytes Captured")
+    @DataAmount
+    long bytesCaptured;
+}
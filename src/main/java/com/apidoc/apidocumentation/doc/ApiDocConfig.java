@@ -16,7 +16,7 @@ public class ApiDocConfig implements WebMvcConfigurer {
     
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
-        registry.addInterceptor(loggingInterceptor)
-                .addPathPatterns("/api/**"); // Customize pattern as needed
+        // Which handlers are captured is decided per handler method by CapturePlanRegistry (apidoc.capture.include/exclude)
+        registry.addInterceptor(loggingInterceptor);
     }
 }
\ No newline at end of file
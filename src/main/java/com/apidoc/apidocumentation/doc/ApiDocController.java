@@ -1,14 +1,21 @@
 package com.apidoc.apidocumentation.doc;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.io.IOException;
 import java.time.LocalDate;
-import java.util.Arrays;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -19,6 +26,16 @@ public class ApiDocController {
 
     //    private final ApiDocumentationService docService;
     private final ApiLogFileService logService;
+    private final DocumentationArtifactService artifactService;
+    private final ApiSampleCache sampleCache;
+    private final CaptureGovernor captureGovernor;
+    private final EndpointTimingAggregator timingAggregator;
+    private final ApiLogTailService tailService;
+    private final RequestSummaryStore summaryStore;
+    private final LogRetentionCompactor retentionCompactor;
+    private final LogStoreCheckpoint checkpoint;
+    private final SlowRequestTracker requestTracker;
+    private final ClusterLogMerger clusterMerger;
     @Autowired
     private  CompleteDocumentationService completeDocumentationService;
 
@@ -33,6 +50,27 @@ public class ApiDocController {
         return logService.getAllLogs();
     }
 
+    // Live tail of newly captured logs; endpoint is a handler template or a URI pattern, status a code or e.g. 5xx
+    @GetMapping(value = "/logs/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> streamLogs(@RequestParam(required = false) String endpoint,
+                                        @RequestParam(required = false) String method,
+                                        @RequestParam(required = false) String status,
+                                        @RequestParam(required = false) Long minLatencyMs) {
+        ApiLogTailService.Filter filter;
+        try {
+            filter = ApiLogTailService.filter(endpoint, method, status, minLatencyMs);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("status", "error", "message", e.getMessage()));
+        }
+        SseEmitter emitter = tailService.subscribe(filter);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("status", "error", "message", "Too many log stream subscribers"));
+        }
+        return ResponseEntity.ok(emitter);
+    }
+
     @GetMapping("/logs/endpoint")
     public List<ApiLog> getLogsByEndpoint(@RequestParam String endpoint) {
         return logService.getLogsByEndpoint(endpoint);
@@ -49,21 +87,139 @@ public class ApiDocController {
         logService.cleanOldLogs(daysToKeep);
         return "Old logs cleaned successfully";
     }
-    @PostMapping("/generate")
-    public ResponseEntity<Map<String, Object>> generateCompleteDocumentation() {
+
+    // Runs tiered retention now instead of waiting for the background schedule
+    @PostMapping("/logs/compact")
+    public Map<String, Object> compactLogs() {
+        return retentionCompactor.compact();
+    }
+
+    @GetMapping("/checkpoint")
+    public Map<String, Object> getCheckpointStatus() {
+        return checkpoint.getStatus();
+    }
+
+    // Writes a checkpoint now, e.g. right before a planned restart
+    @PostMapping("/checkpoint")
+    public Map<String, Object> writeCheckpoint() {
+        return checkpoint.checkpoint();
+    }
+
+    @PostMapping("/samples/reload")
+    public Map<String, Object> reloadSamples() {
+        int loaded = sampleCache.reload();
+        return Map.of(
+                "status", "success",
+                "logsRead", loaded,
+                "endpointsWithSamples", sampleCache.size()
+        );
+    }
+
+    // Aggregates over the columnar summary store; groupBy is endpoint, method, status or none
+    @GetMapping("/analytics/summary")
+    public ResponseEntity<?> getRequestSummary(
+            @RequestParam(defaultValue = "endpoint") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) String status) {
+        try {
+            return ResponseEntity.ok(summaryStore.summarize(groupBy, from, to, endpoint, method, status));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+        }
+    }
+
+    // Daily statistics kept for logs past their full-payload period; groupBy is day, endpoint, method, status or none
+    @GetMapping("/analytics/history")
+    public ResponseEntity<?> getRequestHistory(
+            @RequestParam(defaultValue = "day") String groupBy,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) String status) {
         try {
-            Map<String, Object> documentation = completeDocumentationService.generateCompleteDocumentation();
-            return ResponseEntity.ok(Map.of(
-                    "status", "success",
-                    "message", "Documentation generated successfully",
-                    "files", Arrays.asList(
-                            "complete-api-documentation.json",
-                            "API-DOCUMENTATION.md",
-                            "API-DOCUMENTATION.html",
-                            "postman-collection.json"
-                    ),
-                    "documentation", documentation
+            return ResponseEntity.ok(retentionCompactor.history(groupBy, from, to, endpoint, method, status));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+        }
+    }
+
+    // Slowest requests of the tracker window and the latest server errors per endpoint; payloads inlines their logs
+    @GetMapping("/analytics/slowest")
+    public Map<String, Object> getSlowestRequests(
+            @RequestParam(required = false) String endpoint,
+            @RequestParam(required = false) String method,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "false") boolean payloads) {
+        return requestTracker.query(endpoint, method, limit, payloads);
+    }
+
+    @GetMapping("/analytics/slowest/{id}")
+    public ResponseEntity<ApiLog> getTrackedRequest(@PathVariable String id) {
+        ApiLog log = requestTracker.getPayload(id);
+        return log != null ? ResponseEntity.ok(log) : ResponseEntity.notFound().build();
+    }
+
+    @GetMapping("/cluster")
+    public Map<String, Object> getClusterMergeStatus() {
+        return clusterMerger.getStatus();
+    }
+
+    // Merges the configured instances' log stores now; a node using the merged store documents the whole cluster
+    @PostMapping("/cluster/merge")
+    public ResponseEntity<?> mergeClusterLogs() {
+        try {
+            return ResponseEntity.ok(clusterMerger.merge());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("status", "error", "message", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity.internalServerError().body(Map.of(
+                    "status", "error",
+                    "message", "Failed to merge cluster logs: " + e.getMessage()
             ));
+        }
+    }
+
+    // Rebuilds this node's state from its log directory now, rather than when the next merge is noticed
+    @PostMapping("/cluster/reload")
+    public Map<String, Object> reloadClusterLogs() {
+        return clusterMerger.reload();
+    }
+
+    @GetMapping("/capture")
+    public Map<String, Object> getCaptureStatus() {
+        return captureGovernor.getStatus();
+    }
+
+    @GetMapping("/timings")
+    public Map<String, Object> getEndpointTimings() {
+        return timingAggregator.getSummary();
+    }
+
+    @DeleteMapping("/timings")
+    public String resetEndpointTimings() {
+        timingAggregator.reset();
+        return "Endpoint timings reset";
+    }
+
+    @PostMapping("/generate")
+    public ResponseEntity<Map<String, Object>> generateCompleteDocumentation(
+            @RequestParam(defaultValue = "false") boolean summary) {
+        try {
+            DocumentationGenerationResult result = completeDocumentationService.generateDocumentation();
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("status", "success");
+            body.put("message", "Documentation generated successfully");
+            body.put("files", result.getFiles());
+            body.put("totalEndpoints", result.getModel().getEndpoints().size());
+            body.put("durationMs", result.getDurationMillis());
+            if (!summary) {
+                body.put("documentation", completeDocumentationService.toDocumentationMap(result.getModel()));
+            }
+            return ResponseEntity.ok(body);
         } catch (IOException e) {
             return ResponseEntity.internalServerError().body(Map.of(
                     "status", "error",
@@ -71,4 +227,16 @@ public class ApiDocController {
             ));
         }
     }
+
+    @GetMapping("/files")
+    public Collection<DocumentationArtifact> getDocumentationFiles() {
+        return artifactService.getArtifacts();
+    }
+
+    @GetMapping("/files/{fileName:.+}")
+    public void getDocumentationFile(@PathVariable String fileName,
+                                     HttpServletRequest request,
+                                     HttpServletResponse response) throws IOException {
+        artifactService.serve(fileName, request, response);
+    }
 }
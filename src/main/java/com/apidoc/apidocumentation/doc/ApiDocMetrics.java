@@ -0,0 +1,89 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.context.ApplicationContext;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+@Component
+public class ApiDocMetrics implements SmartInitializingSingleton {
+
+    // Micrometer is an optional dependency; its types are only touched through MicrometerApiDocMetrics
+    private static final boolean MICROMETER_PRESENT =
+            ClassUtils.isPresent("io.micrometer.core.instrument.MeterRegistry", ApiDocMetrics.class.getClassLoader());
+
+    private final ApplicationContext context;
+    private volatile Recorder recorder = Recorder.NOOP;
+
+    public ApiDocMetrics(ApplicationContext context) {
+        this.context = context;
+    }
+
+    static ApiDocMetrics noop() {
+        return new ApiDocMetrics(null);
+    }
+
+    // Runs once every singleton exists, so an auto-configured MeterRegistry has been created by now
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (context != null && MICROMETER_PRESENT) {
+            Recorder micrometer = MicrometerApiDocMetrics.create(context);
+            if (micrometer != null) {
+                recorder = micrometer;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return recorder != Recorder.NOOP;
+    }
+
+    public void recordCapture(long nanos) {
+        recorder.recordCapture(nanos);
+    }
+
+    public void recordLogSaved(long nanos, long bytes) {
+        recorder.recordLogSaved(nanos, bytes);
+    }
+
+    public void recordLogSaveFailure() {
+        recorder.recordLogSaveFailure();
+    }
+
+    public void recordScan(long nanos) {
+        recorder.recordScan(nanos);
+    }
+
+    public void recordGeneration(long nanos) {
+        recorder.recordGeneration(nanos);
+    }
+
+    public void recordGenerationFailure() {
+        recorder.recordGenerationFailure();
+    }
+
+    // Implementations must record into pre-registered meters: these are called on the request path
+    interface Recorder {
+
+        Recorder NOOP = new Recorder() {
+        };
+
+        default void recordCapture(long nanos) {
+        }
+
+        default void recordLogSaved(long nanos, long bytes) {
+        }
+
+        default void recordLogSaveFailure() {
+        }
+
+        default void recordScan(long nanos) {
+        }
+
+        default void recordGeneration(long nanos) {
+        }
+
+        default void recordGenerationFailure() {
+        }
+    }
+}
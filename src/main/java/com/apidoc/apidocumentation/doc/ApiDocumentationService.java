@@ -8,20 +8,29 @@ import org.springframework.web.bind.annotation.*;
 import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Service
 public class ApiDocumentationService {
     
     private final ApplicationContext context;
+    private final DocumentationGenerationCoordinator generationCoordinator;
+    private final ApiDocMetrics metrics;
+    private final ApiLogFileService logService;
     private ApiDocFileService fileService;
-    private final Map<String, ApiEndpointInfo> apiRegistry = new HashMap<>();
+    private final Map<String, ApiEndpointInfo> apiRegistry = new ConcurrentHashMap<>();
     
-    public ApiDocumentationService(ApplicationContext context) {
+    public ApiDocumentationService(ApplicationContext context, DocumentationGenerationCoordinator generationCoordinator,
+                                   ApiDocMetrics metrics, ApiLogFileService logService) {
         this.context = context;
+        this.generationCoordinator = generationCoordinator;
+        this.metrics = metrics;
+        this.logService = logService;
     }
 
     @Scheduled(initialDelay = 5000, fixedDelay = Long.MAX_VALUE)
     public void scanAndRegisterApis() {
+        long start = System.nanoTime();
 
         Map<String, Object> controllers = context.getBeansWithAnnotation(ApiDocClass.class);
 //        Map<String, Object> controllers = context.getBeansWithAnnotation(RestController.class);
@@ -42,14 +51,31 @@ public class ApiDocumentationService {
                 }
             }
         }
+        metrics.recordScan(System.nanoTime() - start);
+        Map<String, ApiEndpointInfo> localEndpoints = new HashMap<>(apiRegistry);
+
+        importClusterRegistry();
         
         // Save documentation to file - lazy initialize fileService
         if (fileService == null) {
             fileService = context.getBean(ApiDocFileService.class);
         }
-        fileService.saveDocumentation(apiRegistry);
+        // Runs on the generation thread so it never overlaps a complete documentation build
+        generationCoordinator.submit("registry", () -> {
+            fileService.saveDocumentation(apiRegistry);
+            logService.saveRegistry(localEndpoints);
+            return null;
+        });
     }
     
+    // A node documenting a merged cluster store also lists the endpoints only other instances serve
+    public void importClusterRegistry() {
+        EndpointRegistrySnapshot clusterRegistry = logService.readClusterRegistry();
+        if (clusterRegistry != null) {
+            clusterRegistry.getEndpoints().forEach(apiRegistry::putIfAbsent);
+        }
+    }
+
     private String getBaseUrl(Class<?> clazz) {
         RequestMapping baseMapping = clazz.getAnnotation(RequestMapping.class);
         return baseMapping != null && baseMapping.value().length > 0 
@@ -56,4 +56,19 @@ class BodyInfo {
     private String contentType;
     private String schema;
     private String example;
+    private long sampleCount;
+    private List<FieldInfo> fields;
+}
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+class FieldInfo {
+    private String name;
+    private List<String> types;
+    private boolean required;
+    private double presenceRatio;
+    private int cardinality;
+    private boolean cardinalityCapped;
 }
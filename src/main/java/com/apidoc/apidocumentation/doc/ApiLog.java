@@ -1,6 +1,7 @@
 package com.apidoc.apidocumentation.doc;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -15,7 +16,9 @@ import java.util.Map;
 @AllArgsConstructor
 public class ApiLog {
     private String id;
+    // Handler path template, e.g. /api/users/{id}; the request URI when no handler matched
     private String endpoint;
+    private String uri;
     private String method;
     private Object requestBody;
     private Map<String, String> requestHeaders;
@@ -27,4 +30,25 @@ public class ApiLog {
     private LocalDateTime timestamp;
     private Long executionTime;
     private String clientIp;
+    // Node that captured the request, so logs merged from several instances stay attributable
+    private String instanceId;
+    private PhaseTimings timings;
+    // Null for logs written before capture levels existed, which were always full
+    private CaptureLevel captureLevel;
+    // Set instead of the inline body when the body was spilled to disk during capture
+    private CapturedBodyFile requestBodyFile;
+    private CapturedBodyFile responseBodyFile;
+
+    // Raw capture state handed from the request thread to the writer, which fills in the fields above from it
+    @JsonIgnore
+    private CaptureBuffer requestCapture;
+    @JsonIgnore
+    private CaptureBuffer responseCapture;
+    @JsonIgnore
+    private Map<String, String[]> requestParameters;
+    @JsonIgnore
+    private long capturedAt;
+    // File name in the log directory once persisted, for listeners that keep a reference to the full log
+    @JsonIgnore
+    private String storedFile;
 }
@@ -2,6 +2,7 @@ package com.apidoc.apidocumentation.doc;
 
 public class ApiLogContext {
     private static final ThreadLocal<Object> requestBodyHolder = new ThreadLocal<>();
+    private static final ThreadLocal<RequestTimeline> timelineHolder = new ThreadLocal<>();
 
     public static void setRequestBody(Object body) {
         requestBodyHolder.set(body);
@@ -11,7 +12,16 @@ public class ApiLogContext {
         return requestBodyHolder.get();
     }
 
+    static void setTimeline(RequestTimeline timeline) {
+        timelineHolder.set(timeline);
+    }
+
+    static RequestTimeline getTimeline() {
+        return timelineHolder.get();
+    }
+
     public static void clear() {
         requestBodyHolder.remove();
+        timelineHolder.remove();
     }
 }
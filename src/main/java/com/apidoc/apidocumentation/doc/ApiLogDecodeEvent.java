@@ -0,0 +1,28 @@
+package com.apidoc.apidocumentation.doc;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.apidoc.LogDecode")
+@Label("API Log Decode")
+@Category({"API Documentation", "Capture"})
+@Description("Writer thread time spent parsing a captured response body, which no longer happens on the request thread")
+@StackTrace(false)
+@Threshold("10 ms")
+class ApiLogDecodeEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Endpoint")
+    String endpoint;
+
+    @Label("Response Bytes")
+    @DataAmount
+    long bytes;
+}
@@ -0,0 +1,181 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class ApiLogDispatcher {
+
+    private final ApiLogFileService logService;
+    private final ObjectMapper objectMapper;
+    private final List<ApiLogListener> listeners;
+    private final CaptureGovernor governor;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final AtomicLong droppedLogs = new AtomicLong();
+    private final AtomicLong processedLogs = new AtomicLong();
+    // Random per-process prefix plus a counter; unique like a UUID without a SecureRandom call per request
+    private final String idPrefix = UUID.randomUUID().toString().substring(0, 8) + "-";
+    private final AtomicLong idSequence = new AtomicLong();
+    // CPU time rather than wall time, so a slow disk does not count against the capture CPU budget
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final boolean threadCpuTime = threads.isCurrentThreadCpuTimeSupported() && threads.isThreadCpuTimeEnabled();
+
+    public ApiLogDispatcher(ApiLogFileService logService,
+                            ObjectMapper objectMapper,
+                            List<ApiLogListener> listeners,
+                            CaptureGovernor governor,
+                            @Value("${apidoc.log.queue-capacity:10000}") int queueCapacity) {
+        this.logService = logService;
+        this.objectMapper = objectMapper;
+        this.listeners = listeners;
+        this.governor = governor;
+        this.queueCapacity = queueCapacity;
+        // Single writer thread keeps per-endpoint files and listener state free of write races
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "apidoc-log-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        governor.watchQueue(executor.getQueue()::size, queueCapacity);
+    }
+
+    public void dispatch(ApiLog log) {
+        try {
+            executor.execute(() -> process(log));
+        } catch (RejectedExecutionException e) {
+            // Never block the request thread; the log is dropped when the queue is full
+            droppedLogs.incrementAndGet();
+            governor.recordDrop();
+            releaseCaptures(log);
+        }
+    }
+
+    private void process(ApiLog log) {
+        long start = cpuTime();
+        try {
+            materialize(log);
+            logService.saveLog(log);
+        } finally {
+            // Spill files the log store did not take over are deleted here
+            releaseCaptures(log);
+        }
+        for (ApiLogListener listener : listeners) {
+            try {
+                listener.onLog(log);
+            } catch (RuntimeException e) {
+                System.err.println("API log listener failed: " + e.getMessage());
+            }
+        }
+        processedLogs.incrementAndGet();
+        governor.recordPersist(cpuTime() - start);
+    }
+
+    // Runs after every log queued so far has been written and seen by the listeners; rejected when the queue is full
+    <T> Future<T> runOnWriter(Callable<T> task) {
+        return executor.submit(task);
+    }
+
+    // Work deferred from the request thread: ids, timestamps and body decoding happen here
+    private void materialize(ApiLog log) {
+        if (log.getId() == null) {
+            log.setId(idPrefix + Long.toHexString(idSequence.incrementAndGet()));
+        }
+        if (log.getInstanceId() == null) {
+            log.setInstanceId(logService.getInstanceId());
+        }
+        if (log.getTimestamp() == null) {
+            long capturedAt = log.getCapturedAt() != 0 ? log.getCapturedAt() : System.currentTimeMillis();
+            log.setTimestamp(LocalDateTime.ofInstant(Instant.ofEpochMilli(capturedAt), ZoneId.systemDefault()));
+        }
+        if (log.getRequestParameters() != null) {
+            try {
+                log.setRequestBody(objectMapper.writeValueAsString(log.getRequestParameters()));
+            } catch (JsonProcessingException e) {
+                log.setRequestBody("Unable to serialize parameters");
+            }
+            log.setRequestParameters(null);
+        }
+        // Spilled bodies stay on disk and are moved into the log store rather than read back
+        CaptureBuffer requestCapture = log.getRequestCapture();
+        if (requestCapture != null && requestCapture.isSpilled()) {
+            log.setRequestBodyFile(requestCapture.toBodyFile());
+        }
+        CaptureBuffer responseCapture = log.getResponseCapture();
+        if (responseCapture != null) {
+            if (responseCapture.isSpilled()) {
+                log.setResponseBodyFile(responseCapture.toBodyFile());
+            } else {
+                ApiLogDecodeEvent event = new ApiLogDecodeEvent();
+                event.begin();
+                log.setResponseBody(responseCapture.decode(objectMapper));
+                event.end();
+                if (event.shouldCommit()) {
+                    event.method = log.getMethod();
+                    event.endpoint = log.getEndpoint();
+                    event.bytes = responseCapture.getTotalBytes();
+                    event.commit();
+                }
+                // In-memory captures go back to the pool before the log is written
+                responseCapture.release();
+                log.setResponseCapture(null);
+            }
+        }
+    }
+
+    private void releaseCaptures(ApiLog log) {
+        if (log.getRequestCapture() != null) {
+            log.getRequestCapture().release();
+            log.setRequestCapture(null);
+        }
+        if (log.getResponseCapture() != null) {
+            log.getResponseCapture().release();
+            log.setResponseCapture(null);
+        }
+    }
+
+    private long cpuTime() {
+        return threadCpuTime ? threads.getCurrentThreadCpuTime() : System.nanoTime();
+    }
+
+    public int getQueueSize() {
+        return executor.getQueue().size();
+    }
+
+    public long getDroppedLogs() {
+        return droppedLogs.get();
+    }
+
+    public long getProcessedLogs() {
+        return processedLogs.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -2,26 +2,44 @@ package com.apidoc.apidocumentation.doc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.nio.file.StandardOpenOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.TreeMap;
+import java.util.UUID;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class ApiLogFileService {
+
+    // Spilled request/response bodies, named after the log that references them
+    static final String BODIES_DIRECTORY = "bodies";
+    // Endpoint registry of the node writing this store, and of the cluster in a merged store
+    static final String REGISTRY_DIRECTORY = "registry";
+    static final String LOCAL_REGISTRY_FILE = "local.json";
+    static final String CLUSTER_REGISTRY_FILE = "cluster.json";
     
     @Value("${apidoc.log.directory:api-logs}")
     private String logDirectory;
@@ -31,10 +49,15 @@ public class ApiLogFileService {
     
     @Value("${apidoc.log.replace-latest:true}") // Replace latest log for same endpoint
     private boolean replaceLatest;
+
+    @Value("${apidoc.instance-id:}") // Defaults to the host name, which is the pod name on Kubernetes
+    private String instanceId;
     
     private final ObjectMapper objectMapper;
+    private final ApiDocMetrics metrics;
     
-    public ApiLogFileService() {
+    public ApiLogFileService(ApiDocMetrics metrics) {
+        this.metrics = metrics;
         this.objectMapper = new ObjectMapper();
         this.objectMapper.registerModule(new JavaTimeModule());
         this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
@@ -44,57 +67,105 @@ public class ApiLogFileService {
     @PostConstruct
     public void init() {
         try {
-            Files.createDirectories(Paths.get(logDirectory));
+            Files.createDirectories(Paths.get(logDirectory, BODIES_DIRECTORY));
         } catch (IOException e) {
             throw new RuntimeException("Failed to create log directory", e);
         }
+        if (instanceId == null || instanceId.isBlank()) {
+            instanceId = System.getenv("HOSTNAME");
+        }
+        if (instanceId == null || instanceId.isBlank()) {
+            try {
+                instanceId = InetAddress.getLocalHost().getHostName();
+            } catch (UnknownHostException e) {
+                instanceId = UUID.randomUUID().toString().substring(0, 8);
+            }
+        }
     }
     
     public void saveLog(ApiLog log) {
+        long start = System.nanoTime();
+        ApiLogPersistEvent event = new ApiLogPersistEvent();
+        event.begin();
+        String fileName = null;
+        long bytes = 0;
+        String outcome = "failed";
         try {
-            String fileName;
-            Path filePath;
+            fileName = replaceLatest ? generateLatestFileName(log) : generateUniqueFileName(log);
+            Path filePath = Paths.get(logDirectory, fileName);
+            String baseName = fileName.substring(0, fileName.lastIndexOf('.'));
+            long bodyBytes = storeBody(log.getRequestBodyFile(), baseName + ".request.body")
+                    + storeBody(log.getResponseBodyFile(), baseName + ".response.body");
             
+            byte[] content = "json".equalsIgnoreCase(logFormat)
+                    ? objectMapper.writeValueAsBytes(log)
+                    : formatAsText(log);
             if (replaceLatest) {
-                // Delete old log files for same endpoint if replace mode is enabled
-                deleteOldLogsForEndpoint(log);
-                fileName = generateLatestFileName(log);
-            } else {
-                fileName = generateUniqueFileName(log);
-            }
-            
-            filePath = Paths.get(logDirectory, fileName);
-            
-            if ("json".equalsIgnoreCase(logFormat)) {
-                saveAsJson(filePath, log);
+                // One file per endpoint template, replaced whole so readers never see a half-written log
+                AtomicFiles.write(filePath, out -> out.write(content));
             } else {
-                saveAsText(filePath, log);
+                Files.write(filePath, content);
             }
+            bytes = content.length + bodyBytes;
+            log.setStoredFile(fileName);
+            outcome = "written";
+            metrics.recordLogSaved(System.nanoTime() - start, bytes);
         } catch (IOException e) {
+            metrics.recordLogSaveFailure();
             System.err.println("Failed to save API log: " + e.getMessage());
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.file = fileName;
+                event.bytes = bytes;
+                event.outcome = outcome;
+                event.commit();
+            }
         }
     }
     
-    private void deleteOldLogsForEndpoint(ApiLog log) throws IOException {
-        String endpointPattern = sanitizeForFileName(log.getEndpoint());
-        String methodPattern = log.getMethod();
-        
-        Files.list(Paths.get(logDirectory))
-            .filter(path -> {
-                String fileName = path.getFileName().toString();
-                return fileName.contains(methodPattern) && 
-                       fileName.contains(endpointPattern) &&
-                       fileName.endsWith("." + logFormat);
-            })
-            .forEach(path -> {
-                try {
-                    Files.delete(path);
-                } catch (IOException e) {
-                    System.err.println("Failed to delete old log: " + path);
+    // Moves a spilled body into the log store; a rename on the same file system, otherwise a kernel-side
+    // channel transfer, so the body is never read back onto the heap
+    private long storeBody(CapturedBodyFile body, String name) throws IOException {
+        Path target = Paths.get(logDirectory, BODIES_DIRECTORY, name);
+        if (body == null || body.getSpillFile() == null) {
+            if (replaceLatest) {
+                // The previous latest log for this endpoint may have had a body file
+                Files.deleteIfExists(target);
+            }
+            return 0;
+        }
+        Path source = body.getSpillFile();
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            // Copied to a new file and renamed over the target: the old body may be hard-linked as a pinned
+            // payload, so its inode must never be rewritten
+            Path temp = AtomicFiles.tempFileFor(target);
+            try {
+                try (FileChannel in = FileChannel.open(source, StandardOpenOption.READ);
+                     FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                    long size = in.size();
+                    for (long position = 0; position < size; ) {
+                        long transferred = in.transferTo(position, size - position, out);
+                        if (transferred <= 0) {
+                            throw new IOException("Spilled body shrank while being stored: " + source);
+                        }
+                        position += transferred;
+                    }
                 }
-            });
+                AtomicFiles.move(temp, target);
+            } catch (IOException | RuntimeException copyFailure) {
+                Files.deleteIfExists(temp);
+                throw copyFailure;
+            }
+            Files.delete(source);
+        }
+        body.setSpillFile(null);
+        body.setPath(BODIES_DIRECTORY + "/" + name);
+        return body.getSize();
     }
-    
+
     private String generateLatestFileName(ApiLog log) {
         String endpoint = sanitizeForFileName(log.getEndpoint());
         return String.format("%s_%s_latest.%s", 
@@ -107,19 +178,19 @@ public class ApiLogFileService {
             .format(DateTimeFormatter.ofPattern("HHmmss-SSS"));
         String endpoint = sanitizeForFileName(log.getEndpoint());
         
-        return String.format("%s_%s_%s_%s.%s", 
-            date, log.getMethod(), endpoint, timestamp, logFormat);
+        // Every request to a template shares its name, so the id keeps same-millisecond captures apart;
+        // ids from one process share a prefix, so all of it is needed
+        String id = log.getId() != null ? sanitizeForFileName(log.getId()) : "";
+        
+        return String.format("%s_%s_%s_%s_%s.%s", 
+            date, log.getMethod(), endpoint, timestamp, id, logFormat);
     }
     
     private String sanitizeForFileName(String input) {
         return input.replaceAll("[^a-zA-Z0-9.-]", "_");
     }
     
-    private void saveAsJson(Path filePath, ApiLog log) throws IOException {
-        objectMapper.writeValue(filePath.toFile(), log);
-    }
-    
-    private void saveAsText(Path filePath, ApiLog log) throws IOException {
+    private byte[] formatAsText(ApiLog log) {
         StringBuilder content = new StringBuilder();
         content.append("=" .repeat(80)).append("\n");
         content.append("API REQUEST/RESPONSE LOG\n");
@@ -127,10 +198,12 @@ public class ApiLogFileService {
         
         content.append("Timestamp: ").append(log.getTimestamp()).append("\n");
         content.append("Endpoint: ").append(log.getEndpoint()).append("\n");
+        content.append("URI: ").append(log.getUri()).append("\n");
         content.append("Method: ").append(log.getMethod()).append("\n");
         content.append("Status Code: ").append(log.getStatusCode()).append("\n");
         content.append("Execution Time: ").append(log.getExecutionTime()).append("ms\n");
-        content.append("Client IP: ").append(log.getClientIp()).append("\n\n");
+        content.append("Client IP: ").append(log.getClientIp()).append("\n");
+        content.append("Instance: ").append(log.getInstanceId()).append("\n\n");
         
         content.append("--- REQUEST HEADERS ---\n");
         if (log.getRequestHeaders() != null) {
@@ -151,23 +224,39 @@ public class ApiLogFileService {
         }
         
         content.append("\n--- REQUEST BODY ---\n");
-        content.append(log.getRequestBody() != null ? log.getRequestBody() : "N/A");
+        content.append(bodyText(log.getRequestBody(), log.getRequestBodyFile()));
         
         content.append("\n\n--- RESPONSE BODY ---\n");
-        content.append(log.getResponseBody() != null ? log.getResponseBody() : "N/A");
+        content.append(bodyText(log.getResponseBody(), log.getResponseBodyFile()));
         
         content.append("\n\n").append("=" .repeat(80)).append("\n");
         
-        Files.writeString(filePath, content.toString(), StandardOpenOption.CREATE);
+        return content.toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    private Object bodyText(Object body, CapturedBodyFile bodyFile) {
+        if (body != null) {
+            return body;
+        }
+        if (bodyFile != null && bodyFile.getPath() != null) {
+            return "[" + bodyFile.getSize() + " bytes in " + bodyFile.getPath()
+                    + (bodyFile.isTruncated() ? ", truncated" : "") + "]";
+        }
+        return "N/A";
     }
     
     public List<ApiLog> getLogsByEndpoint(String endpoint) {
+        LogDirectoryScanEvent event = new LogDirectoryScanEvent();
+        event.begin();
         try {
-            return Files.list(Paths.get(logDirectory))
+            List<ApiLog> logs = Files.list(Paths.get(logDirectory))
+                .filter(Files::isRegularFile)
                 .filter(path -> path.toString().contains(sanitizeForFileName(endpoint)))
                 .map(this::readLogFromFile)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+            commitScan(event, "by-endpoint", logs.size());
+            return logs;
         } catch (IOException e) {
             System.err.println("Failed to read logs: " + e.getMessage());
             return Collections.emptyList();
@@ -175,13 +264,17 @@ public class ApiLogFileService {
     }
     
     public List<ApiLog> getLogsByDate(LocalDate date) {
+        LogDirectoryScanEvent event = new LogDirectoryScanEvent();
+        event.begin();
         try {
             String dateStr = date.format(DateTimeFormatter.ISO_DATE);
-            return Files.list(Paths.get(logDirectory))
+            List<ApiLog> logs = Files.list(Paths.get(logDirectory))
                 .filter(path -> path.getFileName().toString().startsWith(dateStr))
                 .map(this::readLogFromFile)
                 .filter(Objects::nonNull)
                 .collect(Collectors.toList());
+            commitScan(event, "by-date", logs.size());
+            return logs;
         } catch (IOException e) {
             System.err.println("Failed to read logs: " + e.getMessage());
             return Collections.emptyList();
@@ -189,19 +282,33 @@ public class ApiLogFileService {
     }
     
     public List<ApiLog> getAllLogs() {
+        LogDirectoryScanEvent event = new LogDirectoryScanEvent();
+        event.begin();
         try {
-            return Files.list(Paths.get(logDirectory))
+            List<ApiLog> logs = Files.list(Paths.get(logDirectory))
                 .filter(path -> path.toString().endsWith("." + logFormat))
                 .map(this::readLogFromFile)
                 .filter(Objects::nonNull)
                 .sorted((a, b) -> b.getTimestamp().compareTo(a.getTimestamp()))
                 .collect(Collectors.toList());
+            commitScan(event, "all", logs.size());
+            return logs;
         } catch (IOException e) {
             System.err.println("Failed to read logs: " + e.getMessage());
             return Collections.emptyList();
         }
     }
     
+    private void commitScan(LogDirectoryScanEvent event, String operation, int filesMatched) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.operation = operation;
+            event.directory = logDirectory;
+            event.filesMatched = filesMatched;
+            event.commit();
+        }
+    }
+    
     private ApiLog readLogFromFile(Path path) {
         try {
             if ("json".equalsIgnoreCase(logFormat)) {
@@ -215,11 +322,98 @@ public class ApiLogFileService {
         }
     }
     
+    // Text logs only yield the header fields, which is all retention compaction needs from them
+    ApiLog readStoredLog(Path path) {
+        if ("json".equalsIgnoreCase(logFormat)) {
+            return readLogFromFile(path);
+        }
+        try (Stream<String> lines = Files.lines(path, StandardCharsets.UTF_8)) {
+            ApiLog log = new ApiLog();
+            lines.takeWhile(line -> !line.startsWith("---")).forEach(line -> {
+                int separator = line.indexOf(": ");
+                if (separator < 0) {
+                    return;
+                }
+                String value = line.substring(separator + 2).trim();
+                switch (line.substring(0, separator)) {
+                    case "Timestamp" -> log.setTimestamp(LocalDateTime.parse(value));
+                    case "Endpoint" -> log.setEndpoint(value);
+                    case "URI" -> log.setUri(value);
+                    case "Method" -> log.setMethod(value);
+                    case "Instance" -> log.setInstanceId("null".equals(value) ? null : value);
+                    case "Status Code" -> log.setStatusCode("null".equals(value) ? null : Integer.valueOf(value));
+                    case "Execution Time" -> log.setExecutionTime(value.startsWith("null") ? null
+                            : Long.valueOf(value.substring(0, value.length() - 2)));
+                    default -> {
+                    }
+                }
+            });
+            return log.getEndpoint() != null && log.getMethod() != null ? log : null;
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Failed to read log file: " + path + " - " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Removes a log together with any body files stored for it
+    void deleteLog(Path path) throws IOException {
+        String fileName = path.getFileName().toString();
+        String baseName = fileName.substring(0, fileName.lastIndexOf('.'));
+        Path bodies = Paths.get(logDirectory, BODIES_DIRECTORY);
+        Files.deleteIfExists(bodies.resolve(baseName + ".request.body"));
+        Files.deleteIfExists(bodies.resolve(baseName + ".response.body"));
+        Files.deleteIfExists(path);
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    // Written after each controller scan, so a cluster merge can combine the registries of every node
+    void saveRegistry(Map<String, ApiEndpointInfo> endpoints) {
+        EndpointRegistrySnapshot snapshot = EndpointRegistrySnapshot.builder()
+                .instances(List.of(instanceId))
+                .savedAt(LocalDateTime.now())
+                .endpoints(new TreeMap<>(endpoints))
+                .build();
+        try {
+            writeRegistry(Paths.get(logDirectory, REGISTRY_DIRECTORY, LOCAL_REGISTRY_FILE), snapshot);
+        } catch (IOException e) {
+            System.err.println("Failed to save endpoint registry: " + e.getMessage());
+        }
+    }
+
+    // The registry a cluster merge left in this store; null on a node's own store
+    EndpointRegistrySnapshot readClusterRegistry() {
+        Path file = Paths.get(logDirectory, REGISTRY_DIRECTORY, CLUSTER_REGISTRY_FILE);
+        if (!Files.exists(file)) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(file.toFile(), EndpointRegistrySnapshot.class);
+        } catch (IOException e) {
+            System.err.println("Failed to read cluster endpoint registry: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // Samples are per node and already kept as logs, so they are not part of the registry file
+    void writeRegistry(Path file, EndpointRegistrySnapshot snapshot) throws IOException {
+        ObjectNode tree = objectMapper.valueToTree(snapshot);
+        tree.get("endpoints").forEach(endpoint -> ((ObjectNode) endpoint).remove("apiLog"));
+        Files.createDirectories(file.getParent());
+        AtomicFiles.write(file, out -> objectMapper.writeValue(out, tree));
+    }
+
     public void cleanOldLogs(int daysToKeep) {
+        LogDirectoryScanEvent event = new LogDirectoryScanEvent();
+        event.begin();
         try {
             LocalDateTime cutoffDate = LocalDateTime.now().minusDays(daysToKeep);
             
-            Files.list(Paths.get(logDirectory))
+            List<Path> expired = Stream.concat(Files.list(Paths.get(logDirectory)),
+                            Files.list(Paths.get(logDirectory, BODIES_DIRECTORY)))
+                .filter(Files::isRegularFile)
                 .filter(path -> {
                     try {
                         return Files.getLastModifiedTime(path)
@@ -229,13 +423,15 @@ public class ApiLogFileService {
                         return false;
                     }
                 })
-                .forEach(path -> {
-                    try {
-                        Files.delete(path);
-                    } catch (IOException e) {
-                        System.err.println("Failed to delete old log: " + path);
-                    }
-                });
+                .collect(Collectors.toList());
+            expired.forEach(path -> {
+                try {
+                    Files.delete(path);
+                } catch (IOException e) {
+                    System.err.println("Failed to delete old log: " + path);
+                }
+            });
+            commitScan(event, "clean", expired.size());
         } catch (IOException e) {
             System.err.println("Failed to clean old logs: " + e.getMessage());
         }
@@ -0,0 +1,7 @@
+package com.apidoc.apidocumentation.doc;
+
+public interface ApiLogListener {
+
+    // Invoked on the background writer thread after the log has been persisted
+    void onLog(ApiLog log);
+}
@@ -0,0 +1,28 @@
+package com.apidoc.apidocumentation.doc;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.apidoc.LogPersist")
+@Label("API Log Persist")
+@Category({"API Documentation", "Persistence"})
+@Description("Writing one API log to the log directory")
+@StackTrace(false)
+@Threshold("10 ms")
+class ApiLogPersistEvent extends jdk.jfr.Event {
+
+    @Label("File")
+    String file;
+
+    @Label("Bytes Written")
+    @DataAmount
+    long bytes;
+
+    @Label("Outcome")
+    String outcome;
+}
@@ -0,0 +1,231 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+// Pushes captured logs to Server-Sent Events subscribers as the writer thread persists them
+@Service
+public class ApiLogTailService implements ApiLogListener {
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    @Value("${apidoc.logs.stream.max-subscribers:16}")
+    private int maxSubscribers;
+
+    @Value("${apidoc.logs.stream.buffer-size:256}")
+    private int bufferSize;
+
+    @Value("${apidoc.logs.stream.heartbeat-seconds:15}")
+    private long heartbeatSeconds;
+
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+    // Slots are reserved before a subscriber is added, so concurrent subscribes cannot exceed the sender pool
+    private final AtomicInteger reservedSlots = new AtomicInteger();
+    private final LongAdder droppedLogs = new LongAdder();
+    // One sender per subscriber at most, so a slow client only ever holds up its own thread
+    private ThreadPoolExecutor senders;
+    private ScheduledExecutorService heartbeat;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadCount = new AtomicInteger();
+        senders = new ThreadPoolExecutor(maxSubscribers, maxSubscribers, 30L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "apidoc-log-tail-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        senders.allowCoreThreadTimeOut(true);
+        heartbeat = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "apidoc-log-tail-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Heartbeats are how disconnected clients get noticed when nothing is being captured
+        if (heartbeatSeconds > 0) {
+            heartbeat.scheduleWithFixedDelay(() -> subscribers.forEach(Subscriber::requestHeartbeat),
+                    heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    // Null when the subscriber limit is reached
+    public SseEmitter subscribe(Filter filter) {
+        if (reservedSlots.incrementAndGet() > maxSubscribers) {
+            reservedSlots.decrementAndGet();
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(0L);
+        Subscriber subscriber = new Subscriber(emitter, filter, bufferSize);
+        subscribers.add(subscriber);
+        emitter.onCompletion(subscriber::unsubscribe);
+        emitter.onTimeout(subscriber::unsubscribe);
+        emitter.onError(error -> subscriber.unsubscribe());
+        return emitter;
+    }
+
+    @Override
+    public void onLog(ApiLog log) {
+        // Runs on the writer thread: only a filter check and a non-blocking enqueue per subscriber
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.filter.matches(log)) {
+                subscriber.offer(log);
+            }
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getDroppedLogs() {
+        return droppedLogs.sum();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    public static Filter filter(String endpoint, String method, String status, Long minLatencyMs) {
+        return new Filter(blankToNull(endpoint), blankToNull(method), StatusRange.parse(status),
+                minLatencyMs != null ? minLatencyMs : 0);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    public static final class Filter {
+
+        private final String endpoint;
+        private final String method;
+        private final StatusRange status;
+        private final long minLatencyMs;
+
+        private Filter(String endpoint, String method, StatusRange status, long minLatencyMs) {
+            this.endpoint = endpoint;
+            this.method = method;
+            this.status = status;
+            this.minLatencyMs = minLatencyMs;
+        }
+
+        // The endpoint matches the handler template exactly, or the concrete URI as an Ant pattern
+        boolean matches(ApiLog log) {
+            if (method != null && !method.equalsIgnoreCase(log.getMethod())) {
+                return false;
+            }
+            if (!status.contains(log.getStatusCode() != null ? log.getStatusCode() : 0)) {
+                return false;
+            }
+            if (minLatencyMs > 0 && (log.getExecutionTime() == null || log.getExecutionTime() < minLatencyMs)) {
+                return false;
+            }
+            return endpoint == null || endpoint.equals(log.getEndpoint())
+                    || (log.getUri() != null && PATH_MATCHER.match(endpoint, log.getUri()));
+        }
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final Filter filter;
+        private final ArrayBlockingQueue<ApiLog> pending;
+        private final AtomicLong dropped = new AtomicLong();
+        private final AtomicBoolean heartbeatDue = new AtomicBoolean();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        Subscriber(SseEmitter emitter, Filter filter, int bufferSize) {
+            this.emitter = emitter;
+            this.filter = filter;
+            this.pending = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+        }
+
+        // Only the writer thread offers, so making room by dropping the oldest log cannot race another offer
+        void offer(ApiLog log) {
+            while (!pending.offer(log)) {
+                if (pending.poll() != null) {
+                    dropped.incrementAndGet();
+                    droppedLogs.increment();
+                }
+            }
+            schedule();
+        }
+
+        // Several callbacks can fire for one subscriber; only the one that removes it frees the slot
+        void unsubscribe() {
+            if (subscribers.remove(this)) {
+                reservedSlots.decrementAndGet();
+            }
+        }
+
+        void requestHeartbeat() {
+            heartbeatDue.set(true);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    long droppedSinceLastSend = dropped.getAndSet(0);
+                    if (droppedSinceLastSend > 0) {
+                        // Tells the client it fell behind instead of silently skipping logs
+                        emitter.send(SseEmitter.event().name("dropped")
+                                .data(Map.of("dropped", droppedSinceLastSend), MediaType.APPLICATION_JSON));
+                    }
+                    ApiLog log = pending.poll();
+                    if (log == null) {
+                        break;
+                    }
+                    SseEmitter.SseEventBuilder event = SseEmitter.event().name("log")
+                            .data(log, MediaType.APPLICATION_JSON);
+                    if (log.getId() != null) {
+                        event.id(log.getId());
+                    }
+                    emitter.send(event);
+                }
+                if (heartbeatDue.getAndSet(false)) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // The client went away; the emitter callbacks may not fire for a dead connection
+                unsubscribe();
+                pending.clear();
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                scheduled.set(false);
+            }
+            if (!pending.isEmpty() || dropped.get() > 0) {
+                schedule();
+            }
+        }
+    }
+}
@@ -1,42 +1,62 @@
 package com.apidoc.apidocumentation.doc;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 import org.springframework.web.servlet.HandlerMapping;
-import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
 
-import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.Enumeration;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.UUID;
 
 @Component
 public class ApiLoggingInterceptor implements HandlerInterceptor {
 
-    private final ApiLogFileService logService;
-    private static final String START_TIME = "startTime";
-    private final ObjectMapper objectMapper;
-
-    public ApiLoggingInterceptor(ApiLogFileService logService, ObjectMapper objectMapper) {
-        this.logService = logService;
-        this.objectMapper = objectMapper;
+    private final ApiLogDispatcher logDispatcher;
+    static final String TRUNCATED_SUFFIX = "...[truncated]";
+    private final ApiDocMetrics metrics;
+    private final CaptureGovernor governor;
+    private final CapturePlanRegistry capturePlans;
+    private final CaptureSpillStore spillStore;
+
+    public ApiLoggingInterceptor(ApiLogDispatcher logDispatcher, ApiDocMetrics metrics, CaptureGovernor governor,
+                                 CapturePlanRegistry capturePlans, CaptureSpillStore spillStore) {
+        this.logDispatcher = logDispatcher;
+        this.metrics = metrics;
+        this.governor = governor;
+        this.capturePlans = capturePlans;
+        this.spillStore = spillStore;
     }
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
-        request.setAttribute(START_TIME, System.currentTimeMillis());
-
-        // For GET requests, log parameters (since no body)
-        if ("GET".equalsIgnoreCase(request.getMethod())) {
-            try {
-                String json = objectMapper.writeValueAsString(request.getParameterMap());
-                ApiLogContext.setRequestBody(json);
-            } catch (Exception ignored) {}
+        CapturePlan plan = planFor(request, handler);
+        if (!plan.isCapture()) {
+            return true;
+        }
+        RequestTimeline timeline = ApiLogContext.getTimeline();
+        long now = System.nanoTime();
+        if (timeline == null) {
+            // Not behind ResponseCachingFilter, so the timeline starts here
+            timeline = new RequestTimeline(now, false);
+            ApiLogContext.setTimeline(timeline);
+        }
+        timeline.preHandle = now;
+
+        // The response is streamed as it is written, so copying has to be switched on before the handler runs
+        CaptureLevel level = governor.getLevel();
+        CapturingResponseWrapper capturing = WebUtils.getNativeResponse(response, CapturingResponseWrapper.class);
+        if (capturing != null && plan.isLogResponse() && level.capturesBodies()) {
+            capturing.startCapture(Math.min(plan.getMaxResponseBytes(), governorLimit(level)));
+        }
+        CapturingRequestWrapper capturingRequest = WebUtils.getNativeRequest(request, CapturingRequestWrapper.class);
+        int requestLimit = Math.min(plan.getMaxRequestBytes(), governorLimit(level));
+        if (capturingRequest != null && plan.isLogRequest() && level.capturesBodies()
+                && spillStore.mayExceedThreshold(request.getContentLengthLong(), requestLimit)) {
+            capturingRequest.startCapture(requestLimit);
         }
         return true;
     }
@@ -44,72 +64,156 @@ public class ApiLoggingInterceptor implements HandlerInterceptor {
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response,
                                 Object handler, Exception ex) {
-
-        Long startTime = (Long) request.getAttribute(START_TIME);
-        long executionTime = startTime != null ? System.currentTimeMillis() - startTime : 0;
-
-        // Get request body from ThreadLocal
-        Object requestBody = ApiLogContext.getRequestBody();
-
-        // Get response body
-        Object responseBody = "";
-        if (response instanceof ContentCachingResponseWrapper) {
-            try {
-                String resp;
-                resp = new String(((ContentCachingResponseWrapper) response).getContentAsByteArray());
-                try {
-                    responseBody = objectMapper.readValue(resp, Object.class);
-                } catch (JsonProcessingException e) {
-                    responseBody = resp;
-                }
-            } catch (Exception ignored) {}
+        CapturePlan plan = planFor(request, handler);
+        if (!plan.isCapture()) {
+            ApiLogContext.clear();
+            return;
+        }
+        CaptureLevel level = governor.getLevel();
+        if (level == CaptureLevel.COUNTERS_ONLY) {
+            governor.recordCountedOnly();
+            ApiLogContext.clear();
+            return;
         }
+        long captureStart = System.nanoTime();
+        RequestTimeline timeline = ApiLogContext.getTimeline();
+        if (timeline != null) {
+            timeline.captureStart = captureStart;
+        }
+        ApiCaptureEvent event = new ApiCaptureEvent();
+        event.begin();
+
+        long executionTime = timeline != null && timeline.preHandle != 0
+                ? (captureStart - timeline.preHandle) / 1_000_000 : 0;
+
+        // Request body from ThreadLocal; GET parameters are serialized as the "body" on the writer thread
+        boolean logRequestBody = plan.isLogRequest() && level.capturesBodies();
+        boolean get = "GET".equalsIgnoreCase(request.getMethod());
+        CaptureBuffer requestCapture = logRequestBody ? spilledRequestBody(request) : null;
+        Object requestBody = logRequestBody && !get && requestCapture == null
+                ? truncateRequestBody(request, Math.min(plan.getMaxRequestBytes(), governorLimit(level))) : null;
+
+        // Response body stays as raw bytes in a pooled buffer until the writer thread decodes it
+        boolean logResponseBody = plan.isLogResponse() && level.capturesBodies();
+        CapturingResponseWrapper capturing = logResponseBody
+                ? WebUtils.getNativeResponse(response, CapturingResponseWrapper.class) : null;
+        CaptureBuffer responseCapture = capturing != null ? capturing.detachCapture() : null;
+        long bytesCaptured = responseCapture != null ? responseCapture.getTotalBytes() : 0;
 
         ApiLog log = ApiLog.builder()
-                .id(UUID.randomUUID().toString())
-                .endpoint(request.getRequestURI())
+                .endpoint(endpointTemplate(request))
+                .uri(request.getRequestURI())
                 .method(request.getMethod())
                 .requestBody(requestBody)
-                .responseBody(responseBody)
+                .requestCapture(requestCapture)
+                .requestParameters(logRequestBody && get ? new LinkedHashMap<>(request.getParameterMap()) : null)
+                .responseBody(logResponseBody && responseCapture == null ? "" : null)
+                .responseCapture(responseCapture)
                 .requestHeaders(extractHeaders(request))
                 .queryParams(extractQueryParams(request))
                 .pathVariables(extractPathVariables(request))
                 .statusCode(response.getStatus())
                 .executionTime(executionTime)
                 .clientIp(request.getRemoteAddr())
-                .timestamp(LocalDateTime.now())
+                .capturedAt(System.currentTimeMillis())
+                .captureLevel(level)
                 .build();
 
-        logService.saveLog(log);
+        long captureEnd = System.nanoTime();
+        if (timeline != null && timeline.deferredDispatch) {
+            // Dispatched by ResponseCachingFilter once the response has reached the client
+            timeline.captureEnd = captureEnd;
+            timeline.pendingLog = log;
+        } else {
+            if (timeline != null) {
+                timeline.captureEnd = captureEnd;
+                log.setTimings(timeline.toTimings(captureEnd));
+            }
+            // Persistence and schema learning run on the background writer thread
+            logDispatcher.dispatch(log);
+        }
+        long captureTime = System.nanoTime() - captureStart;
+        metrics.recordCapture(captureTime);
+        governor.recordCapture(captureTime);
+        event.end();
+        if (event.shouldCommit()) {
+            event.method = log.getMethod();
+            event.endpoint = log.getEndpoint();
+            event.statusCode = response.getStatus();
+            event.bytesCaptured = bytesCaptured;
+            event.commit();
+        }
 
         // Clear ThreadLocal
         ApiLogContext.clear();
     }
 
+    private int governorLimit(CaptureLevel level) {
+        return level == CaptureLevel.TRUNCATED ? governor.getTruncateBytes() : Integer.MAX_VALUE;
+    }
+
+    // A raw copy is only used once it has gone to disk; below the threshold the bound body is logged as before
+    private CaptureBuffer spilledRequestBody(HttpServletRequest request) {
+        CapturingRequestWrapper capturing = WebUtils.getNativeRequest(request, CapturingRequestWrapper.class);
+        CaptureBuffer capture = capturing != null ? capturing.detachCapture() : null;
+        if (capture != null && !capture.isSpilled()) {
+            capture.release();
+            return null;
+        }
+        return capture;
+    }
+
+    private Object truncateRequestBody(HttpServletRequest request, int truncateBytes) {
+        Object body = ApiLogContext.getRequestBody();
+        if (body instanceof String text && text.length() > truncateBytes) {
+            return text.substring(0, truncateBytes) + TRUNCATED_SUFFIX;
+        }
+        // Bound bodies are already objects here, so an oversized one is replaced rather than cut
+        if (!(body instanceof String) && request.getContentLengthLong() > truncateBytes) {
+            return "[" + request.getContentLengthLong() + " bytes]" + TRUNCATED_SUFFIX;
+        }
+        return body;
+    }
+
+    private CapturePlan planFor(HttpServletRequest request, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return capturePlans.planFor(handler, pattern instanceof String template ? template : null);
+    }
+
+    // Keying by template keeps one entry per endpoint instead of one per distinct URL
+    private String endpointTemplate(HttpServletRequest request) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern instanceof String template ? template : request.getRequestURI();
+    }
+
+    // Spring builds this map per request and never changes it afterwards, so it is kept rather than copied
+    @SuppressWarnings("unchecked")
     private Map<String, String> extractPathVariables(HttpServletRequest request) {
-        Map<String, String> pathVars = new HashMap<>();
         Map<String, String> uriTemplateVars = (Map<String, String>)
                 request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
-        if (uriTemplateVars != null) {
-            pathVars.putAll(uriTemplateVars);
-        }
-        return pathVars;
+        return uriTemplateVars != null ? uriTemplateVars : Collections.emptyMap();
     }
 
     private Map<String, String> extractHeaders(HttpServletRequest request) {
-        Map<String, String> headers = new HashMap<>();
+        FlatStringMap headers = new FlatStringMap(16);
         Enumeration<String> headerNames = request.getHeaderNames();
         while (headerNames.hasMoreElements()) {
             String name = headerNames.nextElement();
-            headers.put(name, request.getHeader(name));
+            headers.add(name, request.getHeader(name));
         }
         return headers;
     }
 
     private Map<String, String> extractQueryParams(HttpServletRequest request) {
-        Map<String, String> params = new HashMap<>();
-        request.getParameterMap().forEach((key, values) ->
-                params.put(key, values.length > 0 ? values[0] : ""));
+        Map<String, String[]> parameters = request.getParameterMap();
+        if (parameters.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        FlatStringMap params = new FlatStringMap(parameters.size());
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            String[] values = parameter.getValue();
+            params.add(parameter.getKey(), values.length > 0 ? values[0] : "");
+        }
         return params;
     }
 }
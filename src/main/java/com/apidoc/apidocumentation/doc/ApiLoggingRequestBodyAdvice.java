@@ -8,6 +8,7 @@ import org.springframework.stereotype.Component;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdvice;
 
+import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 
 @Component
@@ -15,15 +16,18 @@ import java.lang.reflect.Type;
 public class ApiLoggingRequestBodyAdvice implements RequestBodyAdvice {
 
     private final ObjectMapper objectMapper;
+    private final CapturePlanRegistry capturePlans;
 
-    public ApiLoggingRequestBodyAdvice(ObjectMapper objectMapper) {
+    public ApiLoggingRequestBodyAdvice(ObjectMapper objectMapper, CapturePlanRegistry capturePlans) {
         this.objectMapper = objectMapper;
+        this.capturePlans = capturePlans;
     }
 
     @Override
     public boolean supports(MethodParameter methodParameter, Type targetType,
                             Class<? extends HttpMessageConverter<?>> converterType) {
-        return true;
+        Method method = methodParameter.getMethod();
+        return method == null || capturePlans.planFor(method).isLogRequest();
     }
 
     @Override
@@ -44,6 +48,7 @@ public class ApiLoggingRequestBodyAdvice implements RequestBodyAdvice {
 
         // Save request body in ThreadLocal for interceptor
         ApiLogContext.setRequestBody(body);
+        markBodyRead();
 
         return body;
     }
@@ -51,6 +56,14 @@ public class ApiLoggingRequestBodyAdvice implements RequestBodyAdvice {
     @Override
     public Object handleEmptyBody(Object body, HttpInputMessage inputMessage, MethodParameter parameter,
                                   Type targetType, Class<? extends HttpMessageConverter<?>> converterType) {
+        markBodyRead();
         return body;
     }
+
+    private void markBodyRead() {
+        RequestTimeline timeline = ApiLogContext.getTimeline();
+        if (timeline != null) {
+            timeline.bodyRead = System.nanoTime();
+        }
+    }
 }
@@ -0,0 +1,41 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.lang.reflect.Method;
+
+@Component
+@ControllerAdvice
+public class ApiLoggingResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final CapturePlanRegistry capturePlans;
+
+    public ApiLoggingResponseBodyAdvice(CapturePlanRegistry capturePlans) {
+        this.capturePlans = capturePlans;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        Method method = returnType.getMethod();
+        return method == null || capturePlans.planFor(method).isCapture();
+    }
+
+    // Called once the handler has returned and before its result is serialized
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        RequestTimeline timeline = ApiLogContext.getTimeline();
+        if (timeline != null && timeline.handlerEnd == 0) {
+            timeline.handlerEnd = System.nanoTime();
+        }
+        return body;
+    }
+}
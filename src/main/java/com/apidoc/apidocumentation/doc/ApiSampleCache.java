@@ -0,0 +1,106 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class ApiSampleCache implements CheckpointedListener {
+
+    private final EndpointKeyResolver keyResolver;
+    private final ApiLogFileService logService;
+    // Latest captured exchange per method + handler path template
+    private final Map<String, ApiLog> latestSamples = new ConcurrentHashMap<>();
+    private volatile boolean warmedUp;
+
+    public ApiSampleCache(EndpointKeyResolver keyResolver, ApiLogFileService logService) {
+        this.keyResolver = keyResolver;
+        this.logService = logService;
+    }
+
+    @Override
+    public void onLog(ApiLog log) {
+        latestSamples.merge(keyResolver.resolve(log.getMethod(), log.getEndpoint()), log, ApiSampleCache::newer);
+    }
+
+    public ApiLog getLatestSample(String method, String path) {
+        if (!warmedUp) {
+            reload();
+        }
+        return latestSamples.get(keyResolver.key(method, path));
+    }
+
+    // Seeds the cache from logs persisted by earlier runs; samples captured since startup win when newer
+    public synchronized int reload() {
+        // Re-key what is already cached, in case it was captured before the handler was registered
+        for (Map.Entry<String, ApiLog> entry : latestSamples.entrySet()) {
+            String key = keyResolver.resolve(entry.getValue().getMethod(), entry.getValue().getEndpoint());
+            if (!key.equals(entry.getKey()) && latestSamples.remove(entry.getKey(), entry.getValue())) {
+                latestSamples.merge(key, entry.getValue(), ApiSampleCache::newer);
+            }
+        }
+
+        int loaded = 0;
+        for (ApiLog log : logService.getAllLogs()) {
+            if (log.getMethod() == null || log.getEndpoint() == null) {
+                continue;
+            }
+            latestSamples.merge(keyResolver.resolve(log.getMethod(), log.getEndpoint()), log, ApiSampleCache::newer);
+            loaded++;
+        }
+        warmedUp = true;
+        return loaded;
+    }
+
+    @Override
+    public String checkpointName() {
+        return "samples";
+    }
+
+    @Override
+    public JsonNode checkpointState(ObjectMapper objectMapper) {
+        return objectMapper.valueToTree(latestSamples);
+    }
+
+    // Restored or rebuilt samples stand in for the lazy reload, which would read every log file
+    @Override
+    public synchronized void restoreCheckpoint(JsonNode state, ObjectMapper objectMapper) throws IOException {
+        latestSamples.clear();
+        if (state != null) {
+            latestSamples.putAll(objectMapper.readerFor(new TypeReference<HashMap<String, ApiLog>>() {
+            }).readValue(state));
+        }
+        warmedUp = true;
+    }
+
+    public int size() {
+        return latestSamples.size();
+    }
+
+    private static ApiLog newer(ApiLog current, ApiLog candidate) {
+        // A sample without bodies, captured while the governor had degraded capture, never replaces one with bodies
+        if (hasBodies(current) && !hasBodies(candidate)) {
+            return current;
+        }
+        if (!hasBodies(current) && hasBodies(candidate)) {
+            return candidate;
+        }
+        if (current.getTimestamp() == null) {
+            return candidate;
+        }
+        if (candidate.getTimestamp() == null) {
+            return current;
+        }
+        return candidate.getTimestamp().isBefore(current.getTimestamp()) ? current : candidate;
+    }
+
+    private static boolean hasBodies(ApiLog log) {
+        return log.getCaptureLevel() == null || log.getCaptureLevel().capturesBodies();
+    }
+}
@@ -0,0 +1,48 @@
+package com.apidoc.apidocumentation.doc;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+final class AtomicFiles {
+
+    private AtomicFiles() {
+    }
+
+    // Writes to a temp file next to the target and renames it into place only once the content is complete
+    static void write(Path target, IOConsumer<OutputStream> content) throws IOException {
+        Path temp = tempFileFor(target);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                content.accept(out);
+            }
+            move(temp, target);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // Created directly rather than via createTempFile, which would leave the published file owner-only
+    static Path tempFileFor(Path target) throws IOException {
+        Path temp = target.resolveSibling("." + target.getFileName() + "." + Long.toHexString(System.nanoTime()) + ".tmp");
+        return Files.createFile(temp);
+    }
+
+    static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @FunctionalInterface
+    interface IOConsumer<T> {
+        void accept(T value) throws IOException;
+    }
+}
@@ -0,0 +1,184 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+// Copy of a body, kept in pooled arrays until the writer thread has decoded it,
+// or streamed to a spill file once it grows past the spill threshold
+class CaptureBuffer {
+
+    private final CaptureBufferPool pool;
+    private final CaptureSpillStore spillStore;
+    private final int limit;
+    private byte[] buffer;
+    private int length;
+    private long totalBytes;
+    private Path spillFile;
+    private FileChannel spillChannel;
+    private long spilledLength;
+    private boolean spillFailed;
+
+    CaptureBuffer(CaptureBufferPool pool, CaptureSpillStore spillStore, int limit) {
+        this.pool = pool;
+        this.spillStore = spillStore;
+        this.limit = limit;
+    }
+
+    void write(int b) {
+        if (spillChannel != null || shouldSpill(1)) {
+            // Single-byte writes are rare; on the spill path they go through the array variant
+            write(new byte[]{(byte) b}, 0, 1);
+            return;
+        }
+        totalBytes++;
+        if (length < limit && !spillFailed) {
+            ensureCapacity(length + 1);
+            buffer[length++] = (byte) b;
+        }
+    }
+
+    void write(byte[] bytes, int offset, int count) {
+        totalBytes += count;
+        int accepted = (int) Math.min(count, limit - capturedBytes());
+        if (accepted <= 0 || spillFailed) {
+            return;
+        }
+        if (spillChannel == null && shouldSpill(accepted) && !startSpill()) {
+            return;
+        }
+        if (spillChannel != null) {
+            spill(ByteBuffer.wrap(bytes, offset, accepted));
+            return;
+        }
+        ensureCapacity(length + accepted);
+        System.arraycopy(bytes, offset, buffer, length, accepted);
+        length += accepted;
+    }
+
+    long getTotalBytes() {
+        return totalBytes;
+    }
+
+    boolean isSpilled() {
+        return spillFile != null && !spillFailed;
+    }
+
+    // Parsed JSON when the body is complete and parses, otherwise the captured text
+    Object decode(ObjectMapper objectMapper) {
+        if (spillFailed) {
+            return "[" + totalBytes + " bytes]" + ApiLoggingInterceptor.TRUNCATED_SUFFIX;
+        }
+        if (length == 0) {
+            return "";
+        }
+        if (totalBytes > length) {
+            // A cut-off document cannot be parsed, so a truncated body is kept as text
+            return new String(buffer, 0, length, StandardCharsets.UTF_8) + ApiLoggingInterceptor.TRUNCATED_SUFFIX;
+        }
+        try {
+            return objectMapper.readValue(buffer, 0, length, Object.class);
+        } catch (IOException e) {
+            return new String(buffer, 0, length, StandardCharsets.UTF_8);
+        }
+    }
+
+    // Closes the spill file and describes it; the file itself stays owned by this buffer until it is moved
+    CapturedBodyFile toBodyFile() {
+        try {
+            spillChannel.close();
+        } catch (IOException e) {
+            System.err.println("Failed to close capture spill file: " + e.getMessage());
+            return null;
+        }
+        spillStore.recordSpilled(spilledLength);
+        return CapturedBodyFile.builder()
+                .size(spilledLength)
+                .truncated(totalBytes > spilledLength)
+                .spillFile(spillFile)
+                .build();
+    }
+
+    void release() {
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+            length = 0;
+        }
+        if (spillFile != null) {
+            try {
+                if (spillChannel != null && spillChannel.isOpen()) {
+                    spillChannel.close();
+                }
+                // Already gone when the writer moved it into the log store
+                Files.deleteIfExists(spillFile);
+            } catch (IOException e) {
+                System.err.println("Failed to delete capture spill file: " + e.getMessage());
+            }
+            spillFile = null;
+        }
+    }
+
+    private long capturedBytes() {
+        return spillChannel != null ? spilledLength : length;
+    }
+
+    private boolean shouldSpill(int incoming) {
+        return spillStore != null && spillChannel == null && length + incoming > spillStore.getThresholdBytes();
+    }
+
+    // Moves what is buffered so far to a new spill file and hands the array back to the pool
+    private boolean startSpill() {
+        try {
+            spillFile = spillStore.newSpillFile();
+            spillChannel = FileChannel.open(spillFile, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            failSpill(e);
+            return false;
+        }
+        if (length > 0) {
+            spill(ByteBuffer.wrap(buffer, 0, length));
+        }
+        if (buffer != null) {
+            pool.release(buffer);
+            buffer = null;
+            length = 0;
+        }
+        return !spillFailed;
+    }
+
+    private void spill(ByteBuffer bytes) {
+        try {
+            while (bytes.hasRemaining()) {
+                spilledLength += spillChannel.write(bytes);
+            }
+        } catch (IOException e) {
+            failSpill(e);
+        }
+    }
+
+    // Capture is given up rather than ever failing the response it is copying
+    private void failSpill(IOException e) {
+        System.err.println("Failed to spill captured body: " + e.getMessage());
+        spillFailed = true;
+        release();
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (buffer == null) {
+            buffer = pool.acquire(capacity);
+        } else if (capacity > buffer.length) {
+            int maxInMemory = spillStore != null ? Math.min(limit, spillStore.getThresholdBytes()) : limit;
+            byte[] larger = pool.acquire(Math.max(capacity, Math.min(maxInMemory, buffer.length * 2)));
+            System.arraycopy(buffer, 0, larger, 0, length);
+            pool.release(buffer);
+            buffer = larger;
+        }
+    }
+}
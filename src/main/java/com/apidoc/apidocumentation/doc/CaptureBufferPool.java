@@ -0,0 +1,73 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+@Component
+public class CaptureBufferPool {
+
+    // 1 KiB to 1 MiB in steps of four; larger captures get an exact, unpooled array
+    private static final int MIN_SHIFT = 10;
+    private static final int CLASS_STEP = 2;
+    private static final int CLASSES = 6;
+
+    // ArrayBlockingQueue neither allocates on offer/poll nor grows, which keeps the pool itself garbage-free
+    private final ArrayBlockingQueue<byte[]>[] classes;
+    private final LongAdder reused = new LongAdder();
+    private final LongAdder allocated = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public CaptureBufferPool(@Value("${apidoc.capture.buffer-pool.buffers-per-class:32}") int buffersPerClass) {
+        this.classes = new ArrayBlockingQueue[CLASSES];
+        for (int i = 0; i < CLASSES; i++) {
+            classes[i] = new ArrayBlockingQueue<>(Math.max(1, buffersPerClass));
+        }
+    }
+
+    byte[] acquire(int minCapacity) {
+        int sizeClass = sizeClass(minCapacity);
+        if (sizeClass < 0) {
+            allocated.increment();
+            return new byte[minCapacity];
+        }
+        byte[] buffer = classes[sizeClass].poll();
+        if (buffer != null) {
+            reused.increment();
+            return buffer;
+        }
+        allocated.increment();
+        return new byte[classSize(sizeClass)];
+    }
+
+    void release(byte[] buffer) {
+        int sizeClass = sizeClass(buffer.length);
+        // Only exact class sizes come from the pool; anything else is left to the GC, as is overflow
+        if (sizeClass >= 0 && classSize(sizeClass) == buffer.length) {
+            classes[sizeClass].offer(buffer);
+        }
+    }
+
+    public long getReused() {
+        return reused.sum();
+    }
+
+    public long getAllocated() {
+        return allocated.sum();
+    }
+
+    private static int sizeClass(int capacity) {
+        for (int i = 0; i < CLASSES; i++) {
+            if (capacity <= classSize(i)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int classSize(int sizeClass) {
+        return 1 << (MIN_SHIFT + sizeClass * CLASS_STEP);
+    }
+}
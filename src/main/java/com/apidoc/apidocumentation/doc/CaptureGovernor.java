@@ -0,0 +1,249 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+@Component
+public class CaptureGovernor {
+
+    // Capture times are bucketed by power of two with 8 linear sub-buckets, i.e. within 12.5% of the true value
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int BUCKETS = 64 << SUB_BUCKET_BITS;
+
+    @Value("${apidoc.capture.governor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apidoc.capture.budget.p99-ms:1}")
+    private double p99BudgetMillis;
+
+    // Share of the machine's CPUs that capture and persistence may use together
+    @Value("${apidoc.capture.budget.cpu-percent:2}")
+    private double cpuBudgetPercent;
+
+    @Value("${apidoc.capture.queue-high-water:0.5}")
+    private double queueHighWater;
+
+    @Value("${apidoc.capture.governor.interval-ms:1000}")
+    private long intervalMillis;
+
+    // Consecutive calm intervals required before stepping back up one level
+    @Value("${apidoc.capture.governor.recovery-intervals:3}")
+    private int recoveryIntervals;
+
+    // Below this many captures per interval p99 is just the slowest request, e.g. one still being JIT-compiled
+    @Value("${apidoc.capture.governor.min-samples:50}")
+    private int minSamples;
+
+    @Value("${apidoc.capture.truncate-bytes:4096}")
+    private int truncateBytes;
+
+    private final AtomicLongArray captureHistogram = new AtomicLongArray(BUCKETS);
+    private final LongAdder captureNanos = new LongAdder();
+    private final LongAdder persistNanos = new LongAdder();
+    private final LongAdder countedOnly = new LongAdder();
+    private final AtomicLong droppedLogs = new AtomicLong();
+    private final int processors = Runtime.getRuntime().availableProcessors();
+
+    private volatile CaptureLevel level = CaptureLevel.FULL;
+    // Read live at every evaluation: a size recorded per persisted log would stay at capacity once the writer idles
+    private volatile IntSupplier queueSize = () -> 0;
+    private volatile int queueCapacity = 1;
+
+    // Only touched by the governor thread
+    private ScheduledExecutorService executor;
+    private long lastEvaluation;
+    private long lastDropped;
+    private int calmIntervals;
+    private int requiredCalmIntervals;
+    // Set after stepping up, until the new level has held for a full recovery period
+    private boolean probing;
+    private volatile double lastP99Millis;
+    private volatile double lastCpuPercent;
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        lastEvaluation = System.nanoTime();
+        requiredCalmIntervals = recoveryIntervals;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "apidoc-capture-governor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::evaluate, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    public CaptureLevel getLevel() {
+        return level;
+    }
+
+    public int getTruncateBytes() {
+        return truncateBytes;
+    }
+
+    // Request thread: time spent building and handing off one log
+    public void recordCapture(long nanos) {
+        captureHistogram.incrementAndGet(bucket(nanos));
+        captureNanos.add(nanos);
+    }
+
+    // Requests that were only counted because capture is at COUNTERS_ONLY
+    public void recordCountedOnly() {
+        countedOnly.increment();
+    }
+
+    // The dispatcher registers its writer queue; the queue cannot be injected, as the dispatcher depends on this
+    void watchQueue(IntSupplier queueSize, int queueCapacity) {
+        this.queueSize = queueSize;
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    // Writer thread: CPU time spent persisting one log and notifying listeners
+    public void recordPersist(long nanos) {
+        persistNanos.add(nanos);
+    }
+
+    public void recordDrop() {
+        droppedLogs.incrementAndGet();
+    }
+
+    public long getCountedOnly() {
+        return countedOnly.sum();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("level", level);
+        status.put("captureP99Millis", lastP99Millis);
+        status.put("cpuPercent", lastCpuPercent);
+        status.put("queueSize", queueSize.getAsInt());
+        status.put("queueCapacity", queueCapacity);
+        status.put("countedOnly", countedOnly.sum());
+        status.put("p99BudgetMillis", p99BudgetMillis);
+        status.put("cpuBudgetPercent", cpuBudgetPercent);
+        return status;
+    }
+
+    void evaluate() {
+        long now = System.nanoTime();
+        long elapsed = Math.max(1, now - lastEvaluation);
+        lastEvaluation = now;
+
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = captureHistogram.getAndSet(i, 0);
+            total += counts[i];
+        }
+        double p99Millis = percentile(counts, total, 0.99) / 1_000_000.0;
+        double cpuPercent = (captureNanos.sumThenReset() + persistNanos.sumThenReset()) * 100.0
+                / ((double) elapsed * processors);
+        double queueFill = (double) queueSize.getAsInt() / queueCapacity;
+        long dropped = droppedLogs.get();
+        boolean dropping = dropped != lastDropped;
+        lastDropped = dropped;
+        lastP99Millis = p99Millis;
+        lastCpuPercent = cpuPercent;
+
+        String pressure = null;
+        if (dropping) {
+            pressure = "writer queue full";
+        } else if (queueFill > queueHighWater) {
+            pressure = String.format("writer queue %.0f%% full", queueFill * 100);
+        } else if (total >= minSamples && p99Millis > p99BudgetMillis) {
+            pressure = String.format("capture p99 %.3fms over %.3fms budget", p99Millis, p99BudgetMillis);
+        } else if (cpuPercent > cpuBudgetPercent) {
+            pressure = String.format("capture CPU %.2f%% over %.2f%% budget", cpuPercent, cpuBudgetPercent);
+        }
+
+        if (pressure != null) {
+            calmIntervals = 0;
+            if (probing) {
+                // The level we just stepped up to could not hold, so wait longer before trying it again
+                probing = false;
+                requiredCalmIntervals = Math.min(requiredCalmIntervals * 2, recoveryIntervals * 64);
+            }
+            changeLevel(level.degrade(), pressure);
+            return;
+        }
+
+        // Only count an interval as calm with headroom to spare, so the level does not flap at the budget line
+        boolean calm = queueFill <= queueHighWater / 2
+                && p99Millis <= p99BudgetMillis / 2
+                && cpuPercent <= cpuBudgetPercent / 2;
+        calmIntervals = calm ? calmIntervals + 1 : 0;
+        if (probing && calmIntervals >= recoveryIntervals) {
+            probing = false;
+            requiredCalmIntervals = recoveryIntervals;
+        }
+        if (level != CaptureLevel.FULL && calmIntervals >= requiredCalmIntervals) {
+            calmIntervals = 0;
+            probing = true;
+            changeLevel(level.recover(), "pressure dropped");
+        }
+    }
+
+    private void changeLevel(CaptureLevel next, String reason) {
+        if (next != level) {
+            System.err.println("API capture level " + level + " -> " + next + ": " + reason);
+            level = next;
+        }
+    }
+
+    static int bucket(long nanos) {
+        if (nanos < (1L << SUB_BUCKET_BITS)) {
+            return (int) Math.max(0, nanos);
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    // Upper bound of a bucket, so the estimate errs on the side of degrading
+    static long bucketUpperBound(int bucket) {
+        if (bucket < (1 << SUB_BUCKET_BITS)) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+        long base = (1L << SUB_BUCKET_BITS | subBucket) << (exponent - SUB_BUCKET_BITS);
+        return base + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+
+    private static long percentile(long[] counts, long total, double quantile) {
+        if (total == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return bucketUpperBound(i);
+            }
+        }
+        return bucketUpperBound(counts.length - 1);
+    }
+}
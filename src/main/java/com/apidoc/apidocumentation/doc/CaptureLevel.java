@@ -0,0 +1,21 @@
+package com.apidoc.apidocumentation.doc;
+
+// Ordered from most to least expensive; the governor moves one step at a time
+public enum CaptureLevel {
+    FULL,
+    TRUNCATED,
+    HEADERS_ONLY,
+    COUNTERS_ONLY;
+
+    CaptureLevel degrade() {
+        return this == COUNTERS_ONLY ? this : values()[ordinal() + 1];
+    }
+
+    CaptureLevel recover() {
+        return this == FULL ? this : values()[ordinal() - 1];
+    }
+
+    public boolean capturesBodies() {
+        return this == FULL || this == TRUNCATED;
+    }
+}
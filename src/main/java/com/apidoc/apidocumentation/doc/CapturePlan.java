@@ -0,0 +1,18 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.Builder;
+import lombok.Value;
+
+// What to capture for one handler method, resolved once so requests only do a lookup
+@Value
+@Builder
+public class CapturePlan {
+
+    static final CapturePlan SKIP = CapturePlan.builder().build();
+
+    boolean capture;
+    boolean logRequest;
+    boolean logResponse;
+    int maxRequestBytes;
+    int maxResponseBytes;
+}
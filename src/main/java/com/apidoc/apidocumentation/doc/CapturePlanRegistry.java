@@ -0,0 +1,138 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContext;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Component
+public class CapturePlanRegistry implements SmartInitializingSingleton {
+
+    private static final CapturePlan UNRESOLVED = CapturePlan.builder()
+            .capture(true).logRequest(true).logResponse(true)
+            .maxRequestBytes(Integer.MAX_VALUE).maxResponseBytes(Integer.MAX_VALUE)
+            .build();
+
+    private final ApplicationContext context;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${apidoc.capture.include:/api/**}")
+    private List<String> includePatterns;
+
+    @Value("${apidoc.capture.exclude:}")
+    private List<String> excludePatterns;
+
+    // Bodies above these sizes are stored truncated; 0 or less means no cap
+    @Value("${apidoc.capture.max-request-bytes:1048576}")
+    private int maxRequestBytes;
+
+    @Value("${apidoc.capture.max-response-bytes:1048576}")
+    private int maxResponseBytes;
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    // Built once every handler is registered and never modified afterwards, so reads need no locking
+    private volatile Map<Method, CapturePlan> plans = new IdentityHashMap<>();
+    // Handlers registered after startup, resolved on first use
+    private final Map<Method, CapturePlan> latePlans = new ConcurrentHashMap<>();
+
+    public CapturePlanRegistry(ApplicationContext context) {
+        this.context = context;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Map<Method, CapturePlan> compiled = new IdentityHashMap<>();
+        for (RequestMappingHandlerMapping mapping : context.getBeansOfType(RequestMappingHandlerMapping.class).values()) {
+            for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : mapping.getHandlerMethods().entrySet()) {
+                CapturePlan plan = compile(entry.getValue(), entry.getKey().getPatternValues());
+                // A method mapped more than once is captured if any of its mappings is
+                compiled.merge(entry.getValue().getMethod(), plan, (a, b) -> a.isCapture() ? a : b);
+            }
+        }
+        plans = compiled;
+    }
+
+    // Interceptor lookup; a handler missing from the startup map is resolved once with the pattern it matched
+    public CapturePlan planFor(Object handler, String matchedPattern) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return CapturePlan.SKIP;
+        }
+        CapturePlan plan = lookup(handlerMethod.getMethod());
+        if (plan != null) {
+            return plan;
+        }
+        return latePlans.computeIfAbsent(handlerMethod.getMethod(), method -> compile(handlerMethod,
+                matchedPattern != null ? Set.of(matchedPattern) : Set.of()));
+    }
+
+    // Body advices only see the Method; an unknown one is treated as captured and the interceptor decides
+    public CapturePlan planFor(Method method) {
+        CapturePlan plan = lookup(method);
+        return plan != null ? plan : UNRESOLVED;
+    }
+
+    // Lets ResponseCachingFilter skip buffering before the handler is known
+    public boolean mayCapture(String requestUri) {
+        String path = !contextPath.isEmpty() && requestUri.startsWith(contextPath)
+                ? requestUri.substring(contextPath.length()) : requestUri;
+        return matchesAny(includePatterns, path) && !matchesAny(excludePatterns, path);
+    }
+
+    private CapturePlan lookup(Method method) {
+        CapturePlan plan = plans.get(method);
+        return plan != null ? plan : latePlans.get(method);
+    }
+
+    private CapturePlan compile(HandlerMethod handlerMethod, Collection<String> patterns) {
+        boolean included = patterns.stream()
+                .anyMatch(pattern -> matchesAny(includePatterns, pattern) && !matchesAny(excludePatterns, pattern));
+        if (!included) {
+            return CapturePlan.SKIP;
+        }
+
+        ApiDocClass classDoc = AnnotatedElementUtils.findMergedAnnotation(handlerMethod.getBeanType(), ApiDocClass.class);
+        ApiDocClass methodClassDoc = handlerMethod.getMethodAnnotation(ApiDocClass.class);
+        ApiDoc methodDoc = handlerMethod.getMethodAnnotation(ApiDoc.class);
+        boolean logRequest = (classDoc == null || classDoc.logRequest())
+                && (methodClassDoc == null || methodClassDoc.logRequest())
+                && (methodDoc == null || methodDoc.logRequest());
+        boolean logResponse = (classDoc == null || classDoc.logResponse())
+                && (methodClassDoc == null || methodClassDoc.logResponse())
+                && (methodDoc == null || methodDoc.logResponse());
+        if (!logRequest && !logResponse) {
+            return CapturePlan.SKIP;
+        }
+
+        return CapturePlan.builder()
+                .capture(true)
+                .logRequest(logRequest)
+                .logResponse(logResponse)
+                .maxRequestBytes(maxRequestBytes > 0 ? maxRequestBytes : Integer.MAX_VALUE)
+                .maxResponseBytes(maxResponseBytes > 0 ? maxResponseBytes : Integer.MAX_VALUE)
+                .build();
+    }
+
+    private boolean matchesAny(List<String> patterns, String path) {
+        for (String pattern : patterns) {
+            if (!pattern.isBlank() && pathMatcher.match(pattern.trim(), path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,77 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.atomic.LongAdder;
+
+// Temp files for captured bodies too large to keep on the heap
+@Component
+public class CaptureSpillStore {
+
+    @Value("${apidoc.capture.spill-threshold-bytes:262144}")
+    private int thresholdBytes;
+
+    // Defaults to a directory inside the log store, so storing a spilled body is a rename
+    @Value("${apidoc.capture.spill-directory:}")
+    private String spillDirectory;
+
+    @Value("${apidoc.log.directory:api-logs}")
+    private String logDirectory;
+
+    private Path directory;
+    private final LongAdder spilledBodies = new LongAdder();
+    private final LongAdder spilledBytes = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        directory = spillDirectory == null || spillDirectory.isBlank()
+                ? Paths.get(logDirectory, ApiLogFileService.BODIES_DIRECTORY, ".spill")
+                : Paths.get(spillDirectory);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to create capture spill directory", e);
+        }
+        // Anything left here belongs to requests that never reached the writer before the last shutdown
+        try (DirectoryStream<Path> leftovers = Files.newDirectoryStream(directory, "capture-*.body")) {
+            for (Path leftover : leftovers) {
+                Files.deleteIfExists(leftover);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to clear capture spill directory: " + e.getMessage());
+        }
+    }
+
+    public int getThresholdBytes() {
+        return thresholdBytes;
+    }
+
+    // Only bodies that can actually cross the threshold are worth copying off the request stream
+    boolean mayExceedThreshold(long contentLength, int limit) {
+        return limit > thresholdBytes && (contentLength < 0 || contentLength > thresholdBytes);
+    }
+
+    Path newSpillFile() throws IOException {
+        spilledBodies.increment();
+        return Files.createTempFile(directory, "capture-", ".body");
+    }
+
+    void recordSpilled(long bytes) {
+        spilledBytes.add(bytes);
+    }
+
+    public long getSpilledBodies() {
+        return spilledBodies.sum();
+    }
+
+    public long getSpilledBytes() {
+        return spilledBytes.sum();
+    }
+}
@@ -0,0 +1,25 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.nio.file.Path;
+
+// A captured body kept as a file next to the log instead of inline
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapturedBodyFile {
+    // Relative to the log directory, e.g. bodies/POST__api_uploads_latest.request.body
+    private String path;
+    private long size;
+    private boolean truncated;
+
+    // Spill file waiting to be moved into the log store
+    @JsonIgnore
+    private Path spillFile;
+}
@@ -0,0 +1,119 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+// Copies the raw request body as the application reads it, so large uploads can be spilled to disk
+// instead of being logged from a bound String or object
+class CapturingRequestWrapper extends HttpServletRequestWrapper {
+
+    private final CaptureBufferPool pool;
+    private final CaptureSpillStore spillStore;
+    private CaptureBuffer capture;
+    private TeeInputStream inputStream;
+    private BufferedReader reader;
+
+    CapturingRequestWrapper(HttpServletRequest request, CaptureBufferPool pool, CaptureSpillStore spillStore) {
+        super(request);
+        this.pool = pool;
+        this.spillStore = spillStore;
+    }
+
+    // Called from preHandle, before argument resolution reads the body
+    void startCapture(int limit) {
+        if (capture == null) {
+            capture = new CaptureBuffer(pool, spillStore, limit);
+        }
+    }
+
+    CaptureBuffer detachCapture() {
+        CaptureBuffer detached = capture;
+        capture = null;
+        return detached;
+    }
+
+    void finish() {
+        if (capture != null) {
+            capture.release();
+            capture = null;
+        }
+    }
+
+    @Override
+    public ServletInputStream getInputStream() throws IOException {
+        if (inputStream == null) {
+            inputStream = new TeeInputStream(super.getInputStream());
+        }
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() throws IOException {
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.ISO_8859_1;
+            reader = new BufferedReader(new InputStreamReader(getInputStream(), charset));
+        }
+        return reader;
+    }
+
+    private class TeeInputStream extends ServletInputStream {
+
+        private final ServletInputStream delegate;
+
+        TeeInputStream(ServletInputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = delegate.read();
+            if (b >= 0 && capture != null) {
+                capture.write(b);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            int read = delegate.read(bytes, offset, length);
+            if (read > 0 && capture != null) {
+                capture.write(bytes, offset, read);
+            }
+            return read;
+        }
+
+        @Override
+        public int available() throws IOException {
+            return delegate.available();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isFinished() {
+            return delegate.isFinished();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            delegate.setReadListener(readListener);
+        }
+    }
+}
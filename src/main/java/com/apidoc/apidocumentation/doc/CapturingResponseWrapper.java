@@ -0,0 +1,123 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+// Streams the response straight to the client and, once enabled, tees up to a limit into a pooled buffer
+class CapturingResponseWrapper extends HttpServletResponseWrapper {
+
+    private final CaptureBufferPool pool;
+    private final CaptureSpillStore spillStore;
+    private CaptureBuffer capture;
+    private TeeOutputStream outputStream;
+    private PrintWriter writer;
+
+    CapturingResponseWrapper(HttpServletResponse response, CaptureBufferPool pool, CaptureSpillStore spillStore) {
+        super(response);
+        this.pool = pool;
+        this.spillStore = spillStore;
+    }
+
+    // Called from preHandle, before the handler writes anything
+    void startCapture(int limit) {
+        if (capture == null) {
+            capture = new CaptureBuffer(pool, spillStore, limit);
+        }
+    }
+
+    // Hands the captured body to the log; whatever is not detached is released by finish()
+    CaptureBuffer detachCapture() {
+        if (writer != null) {
+            // Characters still in the encoder have not reached the tee yet
+            writer.flush();
+        }
+        CaptureBuffer detached = capture;
+        capture = null;
+        return detached;
+    }
+
+    void finish() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        if (capture != null) {
+            capture.release();
+            capture = null;
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        if (outputStream == null) {
+            outputStream = new TeeOutputStream(super.getOutputStream());
+        }
+        return outputStream;
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        if (writer == null) {
+            writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+        }
+        return writer;
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        if (writer != null) {
+            writer.flush();
+        }
+        super.flushBuffer();
+    }
+
+    private class TeeOutputStream extends ServletOutputStream {
+
+        private final ServletOutputStream delegate;
+
+        TeeOutputStream(ServletOutputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            delegate.write(b);
+            if (capture != null) {
+                capture.write(b);
+            }
+        }
+
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            delegate.write(bytes, offset, length);
+            if (capture != null) {
+                capture.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            delegate.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            delegate.close();
+        }
+
+        @Override
+        public boolean isReady() {
+            return delegate.isReady();
+        }
+
+        @Override
+        public void setWriteListener(WriteListener writeListener) {
+            delegate.setWriteListener(writeListener);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+
+// Listener state that is checkpointed, so a restart replays only the logs written after the checkpoint
+public interface CheckpointedListener extends ApiLogListener {
+
+    // Section name in the checkpoint file
+    String checkpointName();
+
+    // Invoked on the background writer thread, so the state matches exactly the logs persisted so far
+    JsonNode checkpointState(ObjectMapper objectMapper);
+
+    // A null state means start empty: every log is about to be replayed
+    void restoreCheckpoint(JsonNode state, ObjectMapper objectMapper) throws IOException;
+}
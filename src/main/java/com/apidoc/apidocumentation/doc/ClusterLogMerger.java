@@ -0,0 +1,563 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+// Merges the log stores of several instances into one store ordered by capture time, together with their endpoint
+// registries and retention statistics. A node using the merged store as its log directory documents the cluster
+@Service
+public class ClusterLogMerger {
+
+    private static final String STAGING_SUFFIX = ".merging";
+    // Files the last merge published, relative to the output; anything else there belongs to the node using it
+    private static final String MANIFEST_FILE = "merged-files.txt";
+
+    // Comma-separated log directories, each optionally named: pod-a=/mnt/pod-a/api-logs,pod-b=/mnt/pod-b/api-logs
+    @Value("${apidoc.cluster.sources:}")
+    private String sources;
+
+    @Value("${apidoc.cluster.output-directory:cluster-logs}")
+    private String outputDirectory;
+
+    // 0 merges only on request
+    @Value("${apidoc.cluster.interval-minutes:0}")
+    private long intervalMinutes;
+
+    // How often a node whose log directory is a merged store looks for a newer merge; 0 never reloads
+    @Value("${apidoc.cluster.reload-seconds:30}")
+    private long reloadSeconds;
+
+    @Value("${apidoc.log.directory:api-logs}")
+    private String logDirectory;
+
+    private final ApiLogFileService logService;
+    private final LogStoreCheckpoint checkpoint;
+    private final LogRetentionCompactor retentionCompactor;
+    private final ApiDocumentationService apiDocService;
+    private final ObjectMapper objectMapper;
+    private final LongAdder mergedLogs = new LongAdder();
+    private ScheduledExecutorService executor;
+    private volatile Map<String, Object> lastMerge;
+    private volatile Map<String, Object> lastReload;
+    private FileTime loadedMerge;
+
+    public ClusterLogMerger(ApiLogFileService logService, LogStoreCheckpoint checkpoint,
+                            LogRetentionCompactor retentionCompactor, ApiDocumentationService apiDocService) {
+        this.logService = logService;
+        this.checkpoint = checkpoint;
+        this.retentionCompactor = retentionCompactor;
+        this.apiDocService = apiDocService;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @PostConstruct
+    public void init() {
+        loadedMerge = mergedAt();
+        boolean merging = intervalMinutes > 0 && !sources.isBlank();
+        if (!merging && reloadSeconds <= 0) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "apidoc-cluster-merge");
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (merging) {
+            executor.scheduleWithFixedDelay(() -> {
+                try {
+                    merge();
+                } catch (IOException | RuntimeException e) {
+                    System.err.println("Cluster log merge failed: " + e.getMessage());
+                }
+            }, intervalMinutes, intervalMinutes, TimeUnit.MINUTES);
+        }
+        if (reloadSeconds > 0) {
+            executor.scheduleWithFixedDelay(this::reloadIfMerged, reloadSeconds, reloadSeconds, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // The store is rebuilt in a staging directory, then published into the output file by file
+    public synchronized Map<String, Object> merge() throws IOException {
+        List<Source> stores = parseSources();
+        if (stores.isEmpty()) {
+            throw new IllegalArgumentException("No log directories to merge; set apidoc.cluster.sources");
+        }
+        Path target = Paths.get(outputDirectory).toAbsolutePath().normalize();
+        // The swap would delete this node's checkpoint, summaries and pinned logs while they are being written
+        if (target.equals(Paths.get(logDirectory).toAbsolutePath().normalize())) {
+            throw new IllegalArgumentException("The merged store cannot be this node's own log directory: " + target);
+        }
+        for (Source store : stores) {
+            if (!Files.isDirectory(store.directory)) {
+                throw new IllegalArgumentException("Not a log directory: " + store.directory);
+            }
+            if (store.directory.equals(target)) {
+                throw new IllegalArgumentException("The merged store cannot also be a source: " + target);
+            }
+        }
+        // Merged files replace those of the same name in the output, so it must be empty or an earlier merge
+        if (Files.isDirectory(target) && !isEmpty(target)
+                && !Files.exists(clusterRegistryFile(target))) {
+            throw new IllegalArgumentException("Refusing to replace a directory that is not a merged log store: " + target);
+        }
+
+        long start = System.nanoTime();
+        Path staging = target.resolveSibling(target.getFileName() + STAGING_SUFFIX);
+        deleteRecursively(staging);
+        Files.createDirectories(staging.resolve(ApiLogFileService.BODIES_DIRECTORY));
+
+        EndpointRegistrySnapshot registry = mergeRegistries(stores);
+        logService.writeRegistry(clusterRegistryFile(staging), registry);
+        Path retention = staging.resolve(LogRetentionCompactor.DIRECTORY);
+        Files.createDirectories(retention);
+        Set<String> replacedSamples = new HashSet<>();
+        Map<String, RetentionSample> samples = mergeSamples(stores, replacedSamples);
+        AtomicFiles.write(retention.resolve(LogRetentionCompactor.SAMPLES_FILE), out -> objectMapper.writeValue(out, samples));
+        int statisticDays = mergeStatistics(stores, retention);
+        long bodies = mergeLogs(stores, staging, replacedSamples);
+
+        publish(staging, target);
+        deleteRecursively(staging);
+
+        long logs = 0;
+        List<Map<String, Object>> merged = new ArrayList<>();
+        for (Source store : stores) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("instance", store.instance);
+            entry.put("directory", store.directory.toString());
+            entry.put("logs", store.logs);
+            merged.add(entry);
+            logs += store.logs;
+        }
+        mergedLogs.add(logs);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("mergedAt", LocalDateTime.now().toString());
+        result.put("output", target.toString());
+        result.put("sources", merged);
+        result.put("logsMerged", logs);
+        result.put("bodiesCopied", bodies);
+        result.put("endpoints", registry.getEndpoints().size());
+        result.put("samples", samples.size());
+        result.put("statisticDays", statisticDays);
+        result.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        lastMerge = result;
+        return result;
+    }
+
+    // A merge on another node replaces the merged logs, retention files and cluster registry under this node, so the
+    // state built from them is rebuilt; the next generation then documents the merged traffic
+    public synchronized Map<String, Object> reload() {
+        long start = System.nanoTime();
+        loadedMerge = mergedAt();
+        retentionCompactor.reload();
+        apiDocService.importClusterRegistry();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("reloadedAt", LocalDateTime.now().toString());
+        result.put("checkpoint", checkpoint.reload());
+        result.put("durationMillis", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        lastReload = result;
+        return result;
+    }
+
+    // A node using the output as its log directory keeps writing logs, checkpoints, summaries, pinned payloads and
+    // spill files there, so the directory is never replaced: each merged file is renamed into place on its own and
+    // only files the previous merge published are removed. The cluster registry goes last, as it signals the reload
+    private void publish(Path staging, Path target) throws IOException {
+        Path registry = clusterRegistryFile(staging);
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(staging)) {
+            files = paths.filter(Files::isRegularFile).filter(path -> !path.equals(registry)).toList();
+        }
+        Set<String> previous = readManifest(target);
+        Set<String> published = new LinkedHashSet<>();
+        for (Path file : files) {
+            String name = staging.relativize(file).toString().replace('\\', '/');
+            Path destination = target.resolve(name);
+            Files.createDirectories(destination.getParent());
+            AtomicFiles.move(file, destination);
+            published.add(name);
+        }
+        published.add(staging.relativize(registry).toString().replace('\\', '/'));
+        previous.removeAll(published);
+        for (String name : previous) {
+            Files.deleteIfExists(target.resolve(name));
+        }
+        Path manifest = target.resolve(ApiLogFileService.REGISTRY_DIRECTORY).resolve(MANIFEST_FILE);
+        Files.createDirectories(manifest.getParent());
+        AtomicFiles.write(manifest, out -> out.write(String.join("\n", published).getBytes(StandardCharsets.UTF_8)));
+        AtomicFiles.move(registry, clusterRegistryFile(target));
+    }
+
+    private static Set<String> readManifest(Path target) throws IOException {
+        Path manifest = target.resolve(ApiLogFileService.REGISTRY_DIRECTORY).resolve(MANIFEST_FILE);
+        Set<String> names = new LinkedHashSet<>();
+        if (Files.exists(manifest)) {
+            for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+                // Never follow a name out of the output directory
+                if (!line.isBlank() && target.resolve(line).normalize().startsWith(target)) {
+                    names.add(line);
+                }
+            }
+        }
+        return names;
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("sources", sources);
+        status.put("outputDirectory", outputDirectory);
+        status.put("intervalMinutes", intervalMinutes);
+        status.put("lastMerge", lastMerge);
+        status.put("reloadSeconds", reloadSeconds);
+        status.put("lastReload", lastReload);
+        return status;
+    }
+
+    private void reloadIfMerged() {
+        try {
+            FileTime merged = mergedAt();
+            if (merged != null && !merged.equals(loadedMerge)) {
+                reload();
+            }
+        } catch (RuntimeException e) {
+            System.err.println("Cluster log reload failed: " + e.getMessage());
+        }
+    }
+
+    // Every merge writes a new cluster registry, so its time identifies the merge the log directory holds
+    private FileTime mergedAt() {
+        try {
+            return Files.getLastModifiedTime(clusterRegistryFile(Paths.get(logDirectory)));
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    public long getMergedLogs() {
+        return mergedLogs.sum();
+    }
+
+    private List<Source> parseSources() {
+        List<Source> parsed = new ArrayList<>();
+        for (String entry : sources.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf('=');
+            String name = separator > 0 ? trimmed.substring(0, separator).trim() : null;
+            Path directory = Paths.get(separator > 0 ? trimmed.substring(separator + 1).trim() : trimmed);
+            parsed.add(new Source(name, directory.toAbsolutePath().normalize()));
+        }
+        return parsed;
+    }
+
+    // Union of every instance's endpoints; a source without a configured name is named by the instance it records
+    private EndpointRegistrySnapshot mergeRegistries(List<Source> stores) throws IOException {
+        Set<String> instances = new LinkedHashSet<>();
+        Map<String, ApiEndpointInfo> endpoints = new TreeMap<>();
+        for (Source store : stores) {
+            Path registryDirectory = store.directory.resolve(ApiLogFileService.REGISTRY_DIRECTORY);
+            EndpointRegistrySnapshot local = readRegistry(registryDirectory.resolve(ApiLogFileService.LOCAL_REGISTRY_FILE));
+            if (store.instance == null) {
+                store.instance = local != null && !local.getInstances().isEmpty()
+                        ? local.getInstances().get(0) : store.directory.toString();
+            }
+            instances.add(store.instance);
+            if (local != null) {
+                local.getEndpoints().forEach(endpoints::putIfAbsent);
+            }
+            // An earlier merge can itself be a source
+            EndpointRegistrySnapshot cluster = readRegistry(registryDirectory.resolve(ApiLogFileService.CLUSTER_REGISTRY_FILE));
+            if (cluster != null) {
+                instances.addAll(cluster.getInstances());
+                cluster.getEndpoints().forEach(endpoints::putIfAbsent);
+            }
+        }
+        return EndpointRegistrySnapshot.builder()
+                .instances(new ArrayList<>(instances))
+                .savedAt(LocalDateTime.now())
+                .endpoints(endpoints)
+                .build();
+    }
+
+    // One sample per endpoint and status class, chosen as retention does; the logs of samples that lose are left
+    // out, since compaction in the merged store would otherwise count them again
+    private Map<String, RetentionSample> mergeSamples(List<Source> stores, Set<String> replaced) throws IOException {
+        Map<String, RetentionSample> samples = new TreeMap<>();
+        Map<String, Path> samplePaths = new HashMap<>();
+        for (Source store : stores) {
+            Path file = store.directory.resolve(LogRetentionCompactor.DIRECTORY).resolve(LogRetentionCompactor.SAMPLES_FILE);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            Map<String, RetentionSample> sourceSamples = objectMapper.readValue(file.toFile(),
+                    new TypeReference<HashMap<String, RetentionSample>>() {
+                    });
+            for (Map.Entry<String, RetentionSample> entry : sourceSamples.entrySet()) {
+                RetentionSample candidate = entry.getValue();
+                Path candidatePath = store.directory.resolve(candidate.getFile());
+                RetentionSample previous = samples.get(entry.getKey());
+                if (previous == null || replacesSample(candidate, candidatePath, previous, samplePaths.get(entry.getKey()))) {
+                    if (previous != null) {
+                        replaced.add(previous.getFile());
+                    }
+                    samples.put(entry.getKey(), candidate);
+                    samplePaths.put(entry.getKey(), candidatePath);
+                } else {
+                    replaced.add(candidate.getFile());
+                }
+            }
+        }
+        return samples;
+    }
+
+    private static boolean replacesSample(RetentionSample candidate, Path candidatePath, RetentionSample previous, Path previousPath) {
+        int order = Integer.compare(LogRetentionCompactor.level(candidate.getCaptureLevel()),
+                LogRetentionCompactor.level(previous.getCaptureLevel()));
+        if (order != 0) {
+            return order < 0;
+        }
+        LocalDateTime candidateCapturedAt = LogRetentionCompactor.capturedAt(candidatePath);
+        LocalDateTime previousCapturedAt = LogRetentionCompactor.capturedAt(previousPath);
+        return previousCapturedAt == null || (candidateCapturedAt != null && !candidateCapturedAt.isBefore(previousCapturedAt));
+    }
+
+    // Statistics are summed per day. Each source deleted the logs up to its own compaction watermark, so the merged
+    // day keeps the lowest one: every log above it is uncounted or a sample, which compaction skips
+    private int mergeStatistics(List<Source> stores, Path retention) throws IOException {
+        Map<LocalDate, List<RetentionDay>> byDay = new TreeMap<>();
+        for (Source store : stores) {
+            Path directory = store.directory.resolve(LogRetentionCompactor.DIRECTORY);
+            if (!Files.isDirectory(directory)) {
+                continue;
+            }
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, LogRetentionCompactor.DAY_FILE_PREFIX + "*.json")) {
+                for (Path path : files) {
+                    RetentionDay day = objectMapper.readValue(path.toFile(), RetentionDay.class);
+                    byDay.computeIfAbsent(day.getDay(), key -> new ArrayList<>()).add(day);
+                }
+            }
+        }
+        for (Map.Entry<LocalDate, List<RetentionDay>> entry : byDay.entrySet()) {
+            RetentionDay merged = RetentionDay.builder().day(entry.getKey()).build();
+            Map<String, RetentionStatistic> byKey = new LinkedHashMap<>();
+            for (RetentionDay day : entry.getValue()) {
+                for (RetentionStatistic statistic : day.getStatistics()) {
+                    RetentionStatistic target = byKey.computeIfAbsent(
+                            statistic.getMethod() + " " + statistic.getEndpoint() + " " + statistic.getStatusClass(),
+                            key -> RetentionStatistic.builder()
+                                    .method(statistic.getMethod())
+                                    .endpoint(statistic.getEndpoint())
+                                    .statusClass(statistic.getStatusClass())
+                                    .build());
+                    LogRetentionCompactor.merge(target, statistic);
+                }
+            }
+            // A source without a watermark for the day has not compacted it and still holds all of its logs
+            boolean compactedEverywhere = entry.getValue().size() == stores.size()
+                    && entry.getValue().stream().allMatch(day -> day.getCompactedThrough() != null);
+            if (compactedEverywhere) {
+                RetentionDay lowest = entry.getValue().stream()
+                        .min(Comparator.comparing(RetentionDay::getCompactedThrough)
+                                .thenComparing(RetentionDay::getCompactedThroughFile))
+                        .orElseThrow();
+                merged.setCompactedThrough(lowest.getCompactedThrough());
+                merged.setCompactedThroughFile(lowest.getCompactedThroughFile());
+            }
+            merged.getStatistics().addAll(byKey.values());
+            Path file = retention.resolve(LogRetentionCompactor.DAY_FILE_PREFIX + entry.getKey() + ".json");
+            AtomicFiles.write(file, out -> objectMapper.writeValue(out, merged));
+        }
+        return byDay.size();
+    }
+
+    // K-way merge by capture time: each source's files are listed and sorted, but only one log per source is held in
+    // memory at a time. Replace-latest files share a name across instances, so the cluster's latest one ends up last
+    private long mergeLogs(List<Source> stores, Path staging, Set<String> replacedSamples) throws IOException {
+        PriorityQueue<Cursor> heads = new PriorityQueue<>(Comparator.comparing((Cursor cursor) -> cursor.capturedAt)
+                .thenComparingInt(cursor -> cursor.order));
+        for (int i = 0; i < stores.size(); i++) {
+            Cursor cursor = new Cursor(i, stores.get(i), listLogs(stores.get(i).directory, replacedSamples));
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        long bodies = 0;
+        while (!heads.isEmpty()) {
+            Cursor cursor = heads.poll();
+            bodies += write(cursor, staging);
+            cursor.source.logs++;
+            if (cursor.advance()) {
+                heads.add(cursor);
+            }
+        }
+        return bodies;
+    }
+
+    private int write(Cursor cursor, Path staging) throws IOException {
+        ApiLog log = cursor.log;
+        // Logs written before instance ids existed are attributed to the store they came from
+        if (log.getInstanceId() == null) {
+            log.setInstanceId(cursor.source.instance);
+        }
+        int bodies = 0;
+        for (CapturedBodyFile bodyFile : new CapturedBodyFile[]{log.getRequestBodyFile(), log.getResponseBodyFile()}) {
+            if (bodyFile != null && bodyFile.getPath() != null) {
+                Path source = cursor.source.directory.resolve(bodyFile.getPath());
+                if (Files.exists(source)) {
+                    Files.copy(source, staging.resolve(bodyFile.getPath()), StandardCopyOption.REPLACE_EXISTING);
+                    bodies++;
+                }
+            }
+        }
+        Path target = staging.resolve(cursor.path.getFileName().toString());
+        objectMapper.writeValue(target.toFile(), log);
+        // Checkpoint replay and retention read capture order from file times
+        Files.setLastModifiedTime(target, FileTime.from(cursor.capturedAt.atZone(ZoneId.systemDefault()).toInstant()));
+        return bodies;
+    }
+
+    // Only JSON logs carry the bodies and timings a merged store is documented from
+    private static List<StoredFile> listLogs(Path directory, Set<String> replacedSamples) throws IOException {
+        List<StoredFile> logs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.json")) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                if (name.startsWith(".") || replacedSamples.contains(name) || !Files.isRegularFile(path)) {
+                    continue;
+                }
+                LocalDateTime capturedAt = LogRetentionCompactor.capturedAt(path);
+                if (capturedAt != null) {
+                    logs.add(new StoredFile(path, capturedAt));
+                }
+            }
+        }
+        logs.sort(Comparator.comparing((StoredFile file) -> file.capturedAt)
+                .thenComparing(file -> file.path.getFileName().toString()));
+        return logs;
+    }
+
+    private EndpointRegistrySnapshot readRegistry(Path file) throws IOException {
+        return Files.exists(file) ? objectMapper.readValue(file.toFile(), EndpointRegistrySnapshot.class) : null;
+    }
+
+    private static Path clusterRegistryFile(Path store) {
+        return store.resolve(ApiLogFileService.REGISTRY_DIRECTORY).resolve(ApiLogFileService.CLUSTER_REGISTRY_FILE);
+    }
+
+    private static boolean isEmpty(Path directory) throws IOException {
+        try (Stream<Path> entries = Files.list(directory)) {
+            return entries.findAny().isEmpty();
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private static final class Source {
+        final Path directory;
+        String instance;
+        long logs;
+
+        Source(String instance, Path directory) {
+            this.instance = instance;
+            this.directory = directory;
+        }
+    }
+
+    private static final class StoredFile {
+        final Path path;
+        final LocalDateTime capturedAt;
+
+        StoredFile(Path path, LocalDateTime capturedAt) {
+            this.path = path;
+            this.capturedAt = capturedAt;
+        }
+    }
+
+    private final class Cursor {
+        final int order;
+        final Source source;
+        final List<StoredFile> files;
+        int next;
+        Path path;
+        LocalDateTime capturedAt;
+        ApiLog log;
+
+        Cursor(int order, Source source, List<StoredFile> files) {
+            this.order = order;
+            this.source = source;
+            this.files = files;
+        }
+
+        // Moves to the next readable log; unreadable files, e.g. one deleted meanwhile, are skipped
+        boolean advance() {
+            while (next < files.size()) {
+                StoredFile file = files.get(next++);
+                try {
+                    log = objectMapper.readValue(file.path.toFile(), ApiLog.class);
+                    path = file.path;
+                    capturedAt = file.capturedAt;
+                    return true;
+                } catch (IOException e) {
+                    System.err.println("Skipped unreadable log during cluster merge: " + file.path + " - " + e.getMessage());
+                }
+            }
+            log = null;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Builder;
+import lombok.Value;
+
+import java.nio.file.Path;
+
+@Value
+@Builder
+public class DocumentationArtifact {
+    String name;
+    String contentType;
+    String etag;
+    long length;
+    long lastModified;
+    @JsonIgnore
+    Path path;
+    @JsonIgnore
+    Path gzipPath;
+    long gzipLength;
+    @JsonIgnore
+    Path deflatePath;
+    long deflateLength;
+}
@@ -0,0 +1,306 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+@Service
+public class DocumentationArtifactService {
+
+    static final String GZIP_SUFFIX = ".gz";
+    static final String DEFLATE_SUFFIX = ".deflate";
+    // Published generations, served instead of the files renderers keep replacing
+    static final String SNAPSHOT_DIRECTORY = ".published";
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${apidoc.doc.directory:api-docs}")
+    private String docDirectory;
+
+    private final Map<String, DocumentationArtifact> artifacts = new ConcurrentHashMap<>();
+    // The generation replaced last stays on disk until the next publish, so downloads still reading it can finish
+    private final Map<String, DocumentationArtifact> retired = new ConcurrentHashMap<>();
+
+    // Snapshots from a previous run are never served again
+    @PostConstruct
+    public void init() {
+        Path snapshots = Paths.get(docDirectory, SNAPSHOT_DIRECTORY);
+        if (!Files.isDirectory(snapshots)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(snapshots)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to clear published documentation snapshots: " + e.getMessage());
+        }
+    }
+
+    // Snapshots the file and computes the ETag and gzip/deflate variants from that snapshot in a single pass. The
+    // validator, length and bytes of one artifact therefore always describe the same generation, even while a
+    // renderer is renaming the next one into place
+    public synchronized DocumentationArtifact publish(String fileName) throws IOException {
+        Path path = Paths.get(docDirectory).resolve(fileName);
+        Path snapshots = Paths.get(docDirectory, SNAPSHOT_DIRECTORY);
+        Files.createDirectories(snapshots);
+        Path snapshot = snapshots.resolve(fileName + "." + UUID.randomUUID().toString().substring(0, 8));
+        Path gzipPath = snapshot.resolveSibling(snapshot.getFileName() + GZIP_SUFFIX);
+        Path deflatePath = snapshot.resolveSibling(snapshot.getFileName() + DEFLATE_SUFFIX);
+        MessageDigest digest = sha256();
+
+        boolean published = false;
+        try {
+            linkOrCopy(path, snapshot);
+            try (InputStream in = Files.newInputStream(snapshot);
+                 OutputStream gzip = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(gzipPath)));
+                 OutputStream deflate = new DeflaterOutputStream(new BufferedOutputStream(Files.newOutputStream(deflatePath)),
+                         new Deflater(Deflater.BEST_COMPRESSION))) {
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    digest.update(buffer, 0, read);
+                    gzip.write(buffer, 0, read);
+                    deflate.write(buffer, 0, read);
+                }
+            }
+
+            DocumentationArtifact artifact = DocumentationArtifact.builder()
+                    .name(fileName)
+                    .contentType(contentTypeOf(fileName))
+                    .etag(HexFormat.of().formatHex(digest.digest()))
+                    .length(Files.size(snapshot))
+                    .lastModified(Files.getLastModifiedTime(snapshot).toMillis())
+                    .path(snapshot)
+                    .gzipPath(gzipPath)
+                    .gzipLength(Files.size(gzipPath))
+                    .deflatePath(deflatePath)
+                    .deflateLength(Files.size(deflatePath))
+                    .build();
+            DocumentationArtifact previous = artifacts.put(fileName, artifact);
+            published = true;
+            if (previous != null) {
+                DocumentationArtifact stale = retired.put(fileName, previous);
+                if (stale != null) {
+                    delete(stale);
+                }
+            }
+            return artifact;
+        } finally {
+            if (!published) {
+                Files.deleteIfExists(snapshot);
+                Files.deleteIfExists(gzipPath);
+                Files.deleteIfExists(deflatePath);
+            }
+        }
+    }
+
+    public void publishAll(Collection<String> fileNames) {
+        for (String fileName : fileNames) {
+            try {
+                publish(fileName);
+            } catch (IOException e) {
+                System.err.println("Failed to publish documentation artifact " + fileName + ": " + e.getMessage());
+            }
+        }
+    }
+
+    // A file the last generation removed is no longer served; its snapshot is retired like a replaced one
+    public synchronized void withdraw(String fileName) {
+        DocumentationArtifact artifact = artifacts.remove(fileName);
+        if (artifact != null) {
+            DocumentationArtifact stale = retired.put(fileName, artifact);
+            if (stale != null) {
+                delete(stale);
+            }
+        }
+    }
+
+    public Collection<DocumentationArtifact> getArtifacts() {
+        return Collections.unmodifiableCollection(artifacts.values());
+    }
+
+    public DocumentationArtifact getArtifact(String fileName) {
+        DocumentationArtifact artifact = artifacts.get(fileName);
+        if (artifact != null || !isServable(fileName)) {
+            return artifact;
+        }
+        // Files generated before a restart are picked up on first access
+        Path path = Paths.get(docDirectory).resolve(fileName);
+        if (!Files.isRegularFile(path)) {
+            return null;
+        }
+        try {
+            return publish(fileName);
+        } catch (IOException e) {
+            System.err.println("Failed to publish documentation artifact " + fileName + ": " + e.getMessage());
+            return null;
+        }
+    }
+
+    public void serve(String fileName, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        DocumentationArtifact artifact = getArtifact(fileName);
+        if (artifact == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        String encoding = negotiateEncoding(request.getHeader(HttpHeaders.ACCEPT_ENCODING));
+        Path body = artifact.getPath();
+        long length = artifact.getLength();
+        if ("gzip".equals(encoding)) {
+            body = artifact.getGzipPath();
+            length = artifact.getGzipLength();
+        } else if ("deflate".equals(encoding)) {
+            body = artifact.getDeflatePath();
+            length = artifact.getDeflateLength();
+        }
+
+        // Each encoding is a distinct representation and gets its own strong validator
+        String etag = "\"" + artifact.getEtag() + (encoding != null ? "-" + encoding : "") + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "no-cache");
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, artifact.getLastModified());
+
+        if (matchesEtag(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        response.setContentType(artifact.getContentType());
+        if (encoding != null) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, encoding);
+        }
+        response.setContentLengthLong(length);
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Let the connector stream the file with sendfile, bypassing the JVM heap entirely
+            request.setAttribute(SENDFILE_FILENAME, body.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(body, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            // The snapshot never changes, but a short file must end the response rather than spin on zero transfers
+            long end = Math.min(length, channel.size());
+            long position = 0;
+            while (position < end) {
+                long transferred = channel.transferTo(position, end - position, out);
+                if (transferred <= 0) {
+                    break;
+                }
+                position += transferred;
+            }
+        }
+    }
+
+    // Renderers rename new files into place, so a hard link keeps this generation's bytes without copying them
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (NoSuchFileException e) {
+            throw e;
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void delete(DocumentationArtifact artifact) {
+        try {
+            Files.deleteIfExists(artifact.getPath());
+            Files.deleteIfExists(artifact.getGzipPath());
+            Files.deleteIfExists(artifact.getDeflatePath());
+        } catch (IOException e) {
+            System.err.println("Failed to delete documentation snapshot " + artifact.getPath() + ": " + e.getMessage());
+        }
+    }
+
+    private String negotiateEncoding(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return null;
+        }
+        boolean deflate = false;
+        for (String token : acceptEncoding.split(",")) {
+            String[] parts = token.trim().split(";");
+            String coding = parts[0].trim().toLowerCase();
+            if (parts.length > 1 && parts[1].trim().matches("q=0(\\.0*)?")) {
+                continue;
+            }
+            if ("gzip".equals(coding)) {
+                return "gzip";
+            }
+            if ("deflate".equals(coding)) {
+                deflate = true;
+            }
+        }
+        return deflate ? "deflate" : null;
+    }
+
+    private boolean matchesEtag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || etag.equals(trimmed) || etag.equals(trimmed.replaceFirst("^W/", ""))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isServable(String fileName) {
+        return !fileName.contains("/") && !fileName.contains("\\") && !fileName.startsWith(".")
+                && !fileName.endsWith(GZIP_SUFFIX) && !fileName.endsWith(DEFLATE_SUFFIX);
+    }
+
+    private String contentTypeOf(String fileName) {
+        if (fileName.endsWith(".json")) {
+            return "application/json";
+        } else if (fileName.endsWith(".html")) {
+            return "text/html;charset=UTF-8";
+        } else if (fileName.endsWith(".md")) {
+            return "text/markdown;charset=UTF-8";
+        }
+        return "application/octet-stream";
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
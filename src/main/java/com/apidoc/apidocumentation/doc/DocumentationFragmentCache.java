@@ -0,0 +1,56 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+public class DocumentationFragmentCache {
+
+    private final Map<String, Fragment> fragments = new ConcurrentHashMap<>();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    // Returns the cached fragment while the endpoint's content hash is unchanged, otherwise re-renders it
+    public String get(String format, EndpointModel endpoint, FragmentRenderer renderer) throws IOException {
+        String cacheKey = format + "|" + endpoint.getKey();
+        Fragment cached = fragments.get(cacheKey);
+        if (cached != null && cached.hash().equals(endpoint.getContentHash())) {
+            hits.incrementAndGet();
+            return cached.content();
+        }
+        misses.incrementAndGet();
+        String content = renderer.render(endpoint);
+        fragments.put(cacheKey, new Fragment(endpoint.getContentHash(), content));
+        return content;
+    }
+
+    public void retainEndpoints(Set<String> endpointKeys) {
+        fragments.keySet().removeIf(cacheKey ->
+                !endpointKeys.contains(cacheKey.substring(cacheKey.indexOf('|') + 1)));
+    }
+
+    public void clear() {
+        fragments.clear();
+    }
+
+    public long getHits() {
+        return hits.get();
+    }
+
+    public long getMisses() {
+        return misses.get();
+    }
+
+    @FunctionalInterface
+    public interface FragmentRenderer {
+        String render(EndpointModel endpoint) throws IOException;
+    }
+
+    private record Fragment(String hash, String content) {
+    }
+}
@@ -0,0 +1,61 @@
+package com.apidoc.apidocumentation.doc;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+@Component
+public class DocumentationGenerationCoordinator {
+
+    // One thread for every job, so registry saves and complete generations never write at the same time
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "apidoc-doc-generation");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Runs that are scheduled but not started yet; callers arriving in the meantime join them
+    private final Map<String, CompletableFuture<?>> pending = new HashMap<>();
+
+    @Value("${apidoc.doc.generation-debounce-ms:200}")
+    private long debounceMillis;
+
+    @SuppressWarnings("unchecked")
+    public synchronized <T> CompletableFuture<T> submit(String job, Callable<T> task) {
+        CompletableFuture<T> existing = (CompletableFuture<T>) pending.get(job);
+        if (existing != null) {
+            return existing;
+        }
+
+        CompletableFuture<T> result = new CompletableFuture<>();
+        pending.put(job, result);
+        executor.schedule(() -> run(job, result, task), debounceMillis, TimeUnit.MILLISECONDS);
+        return result;
+    }
+
+    private <T> void run(String job, CompletableFuture<T> result, Callable<T> task) {
+        // Triggers from here on start a follow-up run, since this one may already have read stale state
+        synchronized (this) {
+            pending.remove(job, result);
+        }
+        try {
+            result.complete(task.call());
+        } catch (Exception e) {
+            System.err.println("Documentation generation '" + job + "' failed: " + e.getMessage());
+            result.completeExceptionally(e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,14 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class DocumentationGenerationResult {
+    DocumentationModel model;
+    List<String> files;
+    long durationMillis;
+}
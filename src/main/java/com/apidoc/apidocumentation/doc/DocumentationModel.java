@@ -0,0 +1,46 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Value
+@Builder
+public class DocumentationModel {
+    String applicationName;
+    String version;
+    String description;
+    LocalDateTime generatedAt;
+    String protocol;
+    String host;
+    String port;
+    String contextPath;
+    String baseUrl;
+    // Sorted by path; the per-tag lists below share the same EndpointModel instances
+    List<EndpointModel> endpoints;
+    Map<String, List<EndpointModel>> endpointsByTag;
+
+    public Map<String, Object> toApplicationInfo() {
+        Map<String, Object> appInfo = new LinkedHashMap<>();
+        appInfo.put("name", applicationName);
+        appInfo.put("version", version);
+        appInfo.put("description", description);
+        appInfo.put("generatedAt", generatedAt.format(DateTimeFormatter.ISO_DATE_TIME));
+        return appInfo;
+    }
+
+    public Map<String, Object> toServerInfo() {
+        Map<String, Object> serverInfo = new LinkedHashMap<>();
+        serverInfo.put("protocol", protocol);
+        serverInfo.put("host", host);
+        serverInfo.put("port", port);
+        serverInfo.put("contextPath", contextPath.isEmpty() ? "/" : contextPath);
+        serverInfo.put("baseUrl", baseUrl);
+        return serverInfo;
+    }
+}
@@ -0,0 +1,63 @@
+package com.apidoc.apidocumentation.doc;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class DocumentationOutput {
+
+    private final Path directory;
+    private final List<String> writtenFiles = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> deletedFiles = Collections.synchronizedList(new ArrayList<>());
+
+    public DocumentationOutput(Path directory) {
+        this.directory = directory;
+    }
+
+    // The file only becomes visible under its final name once the callback has completed successfully
+    public void writeText(String fileName, AtomicFiles.IOConsumer<Writer> content) throws IOException {
+        writeBinary(fileName, out -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            content.accept(writer);
+            writer.flush();
+        });
+    }
+
+    public void writeBinary(String fileName, AtomicFiles.IOConsumer<OutputStream> content) throws IOException {
+        AtomicFiles.write(directory.resolve(fileName), content);
+        writtenFiles.add(fileName);
+    }
+
+    // Removes files matching the glob that this generation did not write, e.g. the fragment of a tag that is gone
+    public void deleteUnwritten(String glob) throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, glob)) {
+            for (Path file : files) {
+                String fileName = file.getFileName().toString();
+                if (!writtenFiles.contains(fileName) && Files.deleteIfExists(file)) {
+                    deletedFiles.add(fileName);
+                }
+            }
+        }
+    }
+
+    public List<String> getWrittenFiles() {
+        synchronized (writtenFiles) {
+            return new ArrayList<>(writtenFiles);
+        }
+    }
+
+    public List<String> getDeletedFiles() {
+        synchronized (deletedFiles) {
+            return new ArrayList<>(deletedFiles);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.apidoc.apidocumentation.doc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.io.IOException;
+
+@Name("com.apidoc.DocumentationPhase")
+@Label("Documentation Phase")
+@Category({"API Documentation", "Generation"})
+@Description("One phase of a documentation generation run")
+@StackTrace(false)
+class DocumentationPhaseEvent extends jdk.jfr.Event {
+
+    @Label("Phase")
+    String phase;
+
+    @Label("Endpoints")
+    int endpoints;
+
+    // Generation runs off the request path, so wrapping each phase in a lambda is cheap enough
+    static <T> T record(String phase, int endpoints, IOSupplier<T> work) throws IOException {
+        DocumentationPhaseEvent event = new DocumentationPhaseEvent();
+        event.begin();
+        try {
+            return work.get();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.phase = phase;
+                event.endpoints = endpoints;
+                event.commit();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    interface IOSupplier<T> {
+        T get() throws IOException;
+    }
+}
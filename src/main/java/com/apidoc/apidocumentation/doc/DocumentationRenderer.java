@@ -0,0 +1,11 @@
+package com.apidoc.apidocumentation.doc;
+
+import java.io.IOException;
+
+public interface DocumentationRenderer {
+
+    String getFormat();
+
+    // Called concurrently with the other renderers; the model is shared and must not be modified
+    void render(DocumentationModel model, DocumentationOutput output) throws IOException;
+}
@@ -0,0 +1,61 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+
+import java.util.Comparator;
+
+@Component
+public class EndpointKeyResolver {
+
+    private final ApiDocumentationService apiDocService;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    @Value("${server.servlet.context-path:}")
+    private String contextPath;
+
+    public EndpointKeyResolver(ApiDocumentationService apiDocService) {
+        this.apiDocService = apiDocService;
+    }
+
+    // Maps a captured request onto the registry key of its handler, e.g. GET:/api/users/{id}. Current logs carry
+    // the handler template, used as is; only a raw request URI, as legacy logs stored, has the context path
+    public String resolve(String method, String uri) {
+        String exact = key(method, uri);
+        if (apiDocService.getAllEndpoints().containsKey(exact)) {
+            return exact;
+        }
+        String path = stripContextPath(uri);
+        if (!path.equals(uri) && apiDocService.getAllEndpoints().containsKey(key(method, path))) {
+            return key(method, path);
+        }
+
+        Comparator<String> specificity = pathMatcher.getPatternComparator(path);
+        String best = null;
+        for (ApiEndpointInfo endpoint : apiDocService.getAllEndpoints().values()) {
+            if (endpoint.getMethod().equalsIgnoreCase(method)
+                    && pathMatcher.match(endpoint.getPath(), path)
+                    && (best == null || specificity.compare(endpoint.getPath(), best) < 0)) {
+                best = endpoint.getPath();
+            }
+        }
+        // Unregistered endpoints keep their concrete path so their data is still kept apart
+        return best != null ? key(method, best) : exact;
+    }
+
+    public String key(String method, String path) {
+        return method + ":" + path;
+    }
+
+    // Only on a segment boundary: with context path /v1, /v1beta/x is not under it
+    private String stripContextPath(String uri) {
+        if (contextPath.isEmpty() || contextPath.equals("/")) {
+            return uri;
+        }
+        if (uri.equals(contextPath)) {
+            return "/";
+        }
+        return uri.startsWith(contextPath + "/") ? uri.substring(contextPath.length()) : uri;
+    }
+}
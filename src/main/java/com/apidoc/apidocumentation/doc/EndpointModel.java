@@ -0,0 +1,65 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Value
+@Builder
+public class EndpointModel {
+    String key;
+    // Hash of the endpoint definition plus its sample; rendered fragments are reused while it is unchanged
+    String contentHash;
+    String method;
+    String path;
+    String fullUrl;
+    String description;
+    List<String> tags;
+    List<ParamInfo> parameters;
+    List<HeaderInfo> headers;
+    BodyInfo requestBody;
+    BodyInfo responseBody;
+    List<String> urlPathSegments;
+    // Pre-rendered once per generation and shared by every output format
+    String requestSample;
+    String headersSample;
+    String responseSample;
+    String curlExample;
+    // From the slow request tracker at generation time; payloads are served under trackedPayloadUrl + id
+    List<TrackedRequest> slowestRequests;
+    List<TrackedRequest> recentServerErrors;
+    String trackedPayloadUrl;
+
+    public boolean hasSamples() {
+        return requestSample != null || headersSample != null || responseSample != null;
+    }
+
+    public boolean hasTrackedRequests() {
+        return (slowestRequests != null && !slowestRequests.isEmpty())
+                || (recentServerErrors != null && !recentServerErrors.isEmpty());
+    }
+
+    public Map<String, Object> toDocumentationEntry() {
+        Map<String, Object> formatted = new LinkedHashMap<>();
+        formatted.put("method", method);
+        formatted.put("path", path);
+        formatted.put("fullUrl", fullUrl);
+        formatted.put("description", description);
+        formatted.put("tags", tags);
+
+        if (parameters != null && !parameters.isEmpty()) {
+            formatted.put("parameters", parameters);
+        }
+        if (requestBody != null) {
+            formatted.put("requestBody", requestBody);
+        }
+        if (responseBody != null) {
+            formatted.put("responseBody", responseBody);
+        }
+
+        return formatted;
+    }
+}
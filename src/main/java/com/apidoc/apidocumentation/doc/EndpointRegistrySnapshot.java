@@ -0,0 +1,28 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Endpoint registry persisted next to a log store; a merged store holds the union over the instances listed
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointRegistrySnapshot {
+    @Builder.Default
+    private List<String> instances = new ArrayList<>();
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime savedAt;
+    // Keyed like the in-memory registry, e.g. GET:/api/users/{id}; captured samples are left out
+    @Builder.Default
+    private Map<String, ApiEndpointInfo> endpoints = new TreeMap<>();
+}
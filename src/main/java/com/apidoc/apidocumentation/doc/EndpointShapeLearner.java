@@ -0,0 +1,250 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.JsonNodeType;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class EndpointShapeLearner implements CheckpointedListener {
+
+    private final ObjectMapper objectMapper;
+    private final EndpointKeyResolver keyResolver;
+    private final Map<String, BodyShape> requestShapes = new ConcurrentHashMap<>();
+    private final Map<String, BodyShape> responseShapes = new ConcurrentHashMap<>();
+
+    public EndpointShapeLearner(ObjectMapper objectMapper, EndpointKeyResolver keyResolver) {
+        this.objectMapper = objectMapper;
+        this.keyResolver = keyResolver;
+    }
+
+    @Override
+    public void onLog(ApiLog log) {
+        // Truncated or missing bodies would teach the wrong shape
+        if (log.getCaptureLevel() != null && log.getCaptureLevel() != CaptureLevel.FULL) {
+            return;
+        }
+        String key = keyResolver.resolve(log.getMethod(), log.getEndpoint());
+        // GET "bodies" are the serialized parameter map, already documented as query params
+        if (!"GET".equalsIgnoreCase(log.getMethod())) {
+            observe(requestShapes, key, log.getRequestBody());
+        }
+        observe(responseShapes, key, log.getResponseBody());
+    }
+
+    public BodyInfo getRequestBody(String method, String path) {
+        BodyShape shape = requestShapes.get(keyResolver.key(method, path));
+        return shape != null ? shape.toBodyInfo() : null;
+    }
+
+    public BodyInfo getResponseBody(String method, String path) {
+        BodyShape shape = responseShapes.get(keyResolver.key(method, path));
+        return shape != null ? shape.toBodyInfo() : null;
+    }
+
+    @Override
+    public String checkpointName() {
+        return "shapes";
+    }
+
+    @Override
+    public JsonNode checkpointState(ObjectMapper mapper) {
+        ObjectNode state = mapper.createObjectNode();
+        state.set("request", mapper.valueToTree(requestShapes));
+        state.set("response", mapper.valueToTree(responseShapes));
+        return state;
+    }
+
+    @Override
+    public void restoreCheckpoint(JsonNode state, ObjectMapper mapper) throws IOException {
+        restore(requestShapes, state != null ? state.get("request") : null, mapper);
+        restore(responseShapes, state != null ? state.get("response") : null, mapper);
+    }
+
+    private static void restore(Map<String, BodyShape> shapes, JsonNode state, ObjectMapper mapper) throws IOException {
+        shapes.clear();
+        if (state != null) {
+            shapes.putAll(mapper.readerFor(new TypeReference<HashMap<String, BodyShape>>() {
+            }).readValue(state));
+        }
+    }
+
+    private void observe(Map<String, BodyShape> shapes, String key, Object body) {
+        JsonNode node = toTree(body);
+        if (node == null) {
+            return;
+        }
+        shapes.computeIfAbsent(key, k -> new BodyShape()).observe(node);
+    }
+
+    private JsonNode toTree(Object body) {
+        if (body == null) {
+            return null;
+        }
+        if (body instanceof String str) {
+            String trimmed = str.trim();
+            // A body cut at the capture size cap says nothing reliable about the shape
+            if (trimmed.isEmpty() || trimmed.endsWith(ApiLoggingInterceptor.TRUNCATED_SUFFIX)) {
+                return null;
+            }
+            if (trimmed.startsWith("{") || trimmed.startsWith("[")) {
+                try {
+                    return objectMapper.readTree(trimmed);
+                } catch (JsonProcessingException e) {
+                    return TextNode.valueOf(str);
+                }
+            }
+            return TextNode.valueOf(str);
+        }
+        return objectMapper.valueToTree(body);
+    }
+}
+
+// Fields rather than accessors are checkpointed, so the learned statistics survive a restart as they are
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+class BodyShape {
+
+    static final String ROOT = "$";
+    private static final int MAX_DEPTH = 8;
+    private static final int MAX_ARRAY_ELEMENTS = 16;
+    // Bodies keyed by ids or map entries would otherwise add a field per distinct key, to memory and checkpoints
+    private static final int MAX_FIELDS = 256;
+    static final String OVERFLOW = "*";
+
+    private long samples;
+    private final Map<String, FieldStats> fields = new LinkedHashMap<>();
+
+    synchronized void observe(JsonNode body) {
+        samples++;
+        collect(ROOT, body, new HashSet<>(), 0);
+    }
+
+    private void collect(String path, JsonNode node, Set<String> seenInSample, int depth) {
+        FieldStats stats = fields.computeIfAbsent(path, p -> new FieldStats());
+        stats.observe(node, seenInSample.add(path));
+
+        if (depth >= MAX_DEPTH) {
+            return;
+        }
+        if (node.isObject()) {
+            Iterator<Map.Entry<String, JsonNode>> children = node.fields();
+            while (children.hasNext()) {
+                Map.Entry<String, JsonNode> child = children.next();
+                String prefix = ROOT.equals(path) ? "" : path + ".";
+                String childPath = prefix + child.getKey();
+                if (fields.size() >= MAX_FIELDS && !fields.containsKey(childPath)) {
+                    // Past the cap, new keys are only counted under one overflow field of their parent
+                    FieldStats overflow = fields.computeIfAbsent(prefix + OVERFLOW, p -> new FieldStats());
+                    overflow.observe(child.getValue(), seenInSample.add(prefix + OVERFLOW));
+                    continue;
+                }
+                collect(childPath, child.getValue(), seenInSample, depth + 1);
+            }
+        } else if (node.isArray()) {
+            int limit = Math.min(node.size(), MAX_ARRAY_ELEMENTS);
+            for (int i = 0; i < limit; i++) {
+                collect(path + "[]", node.get(i), seenInSample, depth + 1);
+            }
+        }
+    }
+
+    synchronized BodyInfo toBodyInfo() {
+        List<FieldInfo> fieldInfos = new ArrayList<>();
+        fields.forEach((name, stats) -> {
+            if (!ROOT.equals(name)) {
+                fieldInfos.add(stats.toFieldInfo(name, samples));
+            }
+        });
+        FieldStats root = fields.get(ROOT);
+        return BodyInfo.builder()
+                .contentType("application/json")
+                .schema(root != null ? String.join("|", root.typeNames()) : null)
+                .sampleCount(samples)
+                .fields(fieldInfos)
+                .build();
+    }
+}
+
+@JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE,
+        isGetterVisibility = JsonAutoDetect.Visibility.NONE)
+class FieldStats {
+
+    private static final int MAX_TRACKED_VALUES = 64;
+
+    private long presentCount;
+    private int typeMask;
+    private Set<String> distinctValues = new HashSet<>();
+    private boolean cardinalityCapped;
+
+    void observe(JsonNode node, boolean firstInSample) {
+        if (firstInSample) {
+            presentCount++;
+        }
+        typeMask |= 1 << typeOf(node).ordinal();
+
+        if (!cardinalityCapped && node.isValueNode()) {
+            distinctValues.add(node.asText());
+            if (distinctValues.size() > MAX_TRACKED_VALUES) {
+                // Past the cap only the fact that the field is high-cardinality matters
+                cardinalityCapped = true;
+                distinctValues = Collections.emptySet();
+            }
+        }
+    }
+
+    List<String> typeNames() {
+        List<String> names = new ArrayList<>();
+        for (ObservedType type : ObservedType.values()) {
+            if ((typeMask & (1 << type.ordinal())) != 0) {
+                names.add(type.name().toLowerCase());
+            }
+        }
+        return names;
+    }
+
+    FieldInfo toFieldInfo(String name, long samples) {
+        double ratio = samples == 0 ? 0 : (double) presentCount / samples;
+        return FieldInfo.builder()
+                .name(name)
+                .types(typeNames())
+                .required(presentCount == samples)
+                .presenceRatio(ratio)
+                .cardinality(cardinalityCapped ? MAX_TRACKED_VALUES : distinctValues.size())
+                .cardinalityCapped(cardinalityCapped)
+                .build();
+    }
+
+    private static ObservedType typeOf(JsonNode node) {
+        JsonNodeType type = node.getNodeType();
+        switch (type) {
+            case OBJECT:
+            case POJO:
+                return ObservedType.OBJECT;
+            case ARRAY:
+                return ObservedType.ARRAY;
+            case NUMBER:
+                return node.isIntegralNumber() ? ObservedType.INTEGER : ObservedType.NUMBER;
+            case BOOLEAN:
+                return ObservedType.BOOLEAN;
+            case NULL:
+            case MISSING:
+                return ObservedType.NULL;
+            default:
+                return ObservedType.STRING;
+        }
+    }
+
+    enum ObservedType {
+        OBJECT, ARRAY, STRING, INTEGER, NUMBER, BOOLEAN, NULL
+    }
+}
@@ -0,0 +1,95 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Service
+public class EndpointTimingAggregator implements CheckpointedListener {
+
+    private final EndpointKeyResolver keyResolver;
+    // Phase totals per method + handler path template
+    private final Map<String, PhaseStats> stats = new ConcurrentHashMap<>();
+
+    public EndpointTimingAggregator(EndpointKeyResolver keyResolver) {
+        this.keyResolver = keyResolver;
+    }
+
+    @Override
+    public void onLog(ApiLog log) {
+        if (log.getTimings() == null) {
+            return;
+        }
+        stats.computeIfAbsent(keyResolver.resolve(log.getMethod(), log.getEndpoint()), key -> new PhaseStats())
+                .add(log.getTimings().toArray());
+    }
+
+    public Map<String, Object> getSummary() {
+        Map<String, Object> summary = new TreeMap<>();
+        stats.forEach((key, phaseStats) -> summary.put(key, phaseStats.toSummary()));
+        return summary;
+    }
+
+    public void reset() {
+        stats.clear();
+    }
+
+    @Override
+    public String checkpointName() {
+        return "timings";
+    }
+
+    @Override
+    public JsonNode checkpointState(ObjectMapper objectMapper) {
+        return objectMapper.valueToTree(stats);
+    }
+
+    @Override
+    public void restoreCheckpoint(JsonNode state, ObjectMapper objectMapper) throws IOException {
+        stats.clear();
+        if (state != null) {
+            stats.putAll(objectMapper.readerFor(new TypeReference<HashMap<String, PhaseStats>>() {
+            }).readValue(state));
+        }
+    }
+
+    @JsonAutoDetect(fieldVisibility = JsonAutoDetect.Visibility.ANY, getterVisibility = JsonAutoDetect.Visibility.NONE)
+    private static class PhaseStats {
+        private final long[] totals = new long[PhaseTimings.PHASES.size()];
+        private final long[] max = new long[PhaseTimings.PHASES.size()];
+        private long count;
+
+        synchronized void add(long[] nanos) {
+            count++;
+            for (int i = 0; i < nanos.length; i++) {
+                totals[i] += nanos[i];
+                max[i] = Math.max(max[i], nanos[i]);
+            }
+        }
+
+        synchronized Map<String, Object> toSummary() {
+            Map<String, Object> phases = new LinkedHashMap<>();
+            for (int i = 0; i < totals.length; i++) {
+                Map<String, Object> phase = new LinkedHashMap<>();
+                phase.put("meanMicros", totals[i] / count / 1_000.0);
+                phase.put("maxMicros", max[i] / 1_000.0);
+                // Share of the mean total, so the slowest phase stands out
+                phase.put("share", totals[totals.length - 1] > 0 ? (double) totals[i] / totals[totals.length - 1] : 0.0);
+                phases.put(PhaseTimings.PHASES.get(i), phase);
+            }
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("requests", count);
+            summary.put("phases", phases);
+            return summary;
+        }
+    }
+}
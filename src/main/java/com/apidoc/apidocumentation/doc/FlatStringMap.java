@@ -0,0 +1,87 @@
+package com.apidoc.apidocumentation.doc;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+// Keys and values interleaved in one array: two objects per map instead of one node per entry
+final class FlatStringMap extends AbstractMap<String, String> {
+
+    private String[] entries;
+    private int size;
+
+    FlatStringMap(int expectedSize) {
+        this.entries = new String[Math.max(2, expectedSize * 2)];
+    }
+
+    // Appends without checking for an existing key; callers add each key once
+    void add(String key, String value) {
+        if (size * 2 == entries.length) {
+            String[] larger = new String[entries.length * 2];
+            System.arraycopy(entries, 0, larger, 0, entries.length);
+            entries = larger;
+        }
+        entries[size * 2] = key;
+        entries[size * 2 + 1] = value;
+        size++;
+    }
+
+    @Override
+    public String get(Object key) {
+        for (int i = 0; i < size; i++) {
+            if (entries[i * 2].equals(key)) {
+                return entries[i * 2 + 1];
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        for (int i = 0; i < size; i++) {
+            if (entries[i * 2].equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Set<Entry<String, String>> entrySet() {
+        return new AbstractSet<>() {
+            @Override
+            public Iterator<Entry<String, String>> iterator() {
+                return new Iterator<>() {
+                    private int index;
+
+                    @Override
+                    public boolean hasNext() {
+                        return index < size;
+                    }
+
+                    @Override
+                    public Entry<String, String> next() {
+                        if (index >= size) {
+                            throw new NoSuchElementException();
+                        }
+                        Entry<String, String> entry = new SimpleImmutableEntry<>(entries[index * 2], entries[index * 2 + 1]);
+                        index++;
+                        return entry;
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
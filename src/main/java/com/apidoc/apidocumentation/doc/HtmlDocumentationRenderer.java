@@ -0,0 +1,423 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@Component
+public class HtmlDocumentationRenderer implements DocumentationRenderer {
+
+    static final String FILE_NAME = "API-DOCUMENTATION.html";
+    static final String SHARD_PREFIX = "API-DOCUMENTATION-";
+    static final String SEARCH_INDEX_FILE_NAME = SHARD_PREFIX + "search.json";
+    private static final String SHARDED_MODE = "sharded";
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final DateTimeFormatter TRACKED_TIME = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String INDEX_STYLES =
+            "        .search { width: 100%; padding: 12px 15px; font-size: 1em; border: 1px solid #dee2e6; border-radius: 5px; margin-bottom: 20px; }\n"
+            + "        .tag-section summary { cursor: pointer; }\n"
+            + "        .tag-section .count { font-size: 0.6em; color: #999; }\n"
+            + "        .endpoint-list { list-style: none; background: white; border-radius: 10px; padding: 10px 20px; margin-bottom: 20px; }\n"
+            + "        .endpoint-row { padding: 6px 0; }\n"
+            + "        .endpoint-row a { text-decoration: none; }\n"
+            + "        .endpoint-row .endpoint-path { font-size: 1em; }\n"
+            + "        .endpoint-row .description { margin: 0 0 0 10px; font-size: 0.9em; }\n";
+
+    private final DocumentationFragmentCache fragmentCache;
+
+    // "single" keeps everything in one page, "sharded" writes an index plus per-tag fragments
+    @Value("${apidoc.doc.html-mode:single}")
+    private String htmlMode;
+
+    public HtmlDocumentationRenderer(DocumentationFragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+    }
+
+    @Override
+    public String getFormat() {
+        return "html";
+    }
+
+    @Override
+    public void render(DocumentationModel model, DocumentationOutput output) throws IOException {
+        if (SHARDED_MODE.equalsIgnoreCase(htmlMode)) {
+            renderSharded(model, output);
+        } else {
+            output.writeText(FILE_NAME, html -> writeHtml(html, model));
+        }
+        // Fragments of tags that no longer exist, or of an earlier sharded generation, go once the new page is in place
+        output.deleteUnwritten(SHARD_PREFIX + "*");
+    }
+
+    private void writeHtml(Writer html, DocumentationModel model) throws IOException {
+        writeHead(html, model, "");
+
+        // Table of Contents
+        Map<String, List<EndpointModel>> groupedByTag = model.getEndpointsByTag();
+        html.append("        <div class=\"toc\">\n");
+        html.append("            <h2>Table of Contents</h2>\n");
+        html.append("            <ul>\n");
+        for (String tag : groupedByTag.keySet()) {
+            html.append("                <li><a href=\"#").append(tag.toLowerCase().replace(" ", "-")).append("\">").append(tag).append("</a></li>\n");
+        }
+        html.append("            </ul>\n");
+        html.append("        </div>\n");
+        
+        // Endpoints
+        for (Map.Entry<String, List<EndpointModel>> group : groupedByTag.entrySet()) {
+            String tag = group.getKey();
+            html.append("        <h2 class=\"section-title\" id=\"").append(tag.toLowerCase().replace(" ", "-")).append("\">").append(tag).append("</h2>\n");
+            
+            for (EndpointModel endpoint : group.getValue()) {
+                html.append(fragmentCache.get(getFormat(), endpoint, this::renderEndpoint));
+            }
+        }
+        
+        html.append("    </div>\n");
+        html.append("</body>\n</html>");
+    }
+
+    // Index page only lists endpoints; details live in one fragment per tag that the browser fetches on demand
+    private void renderSharded(DocumentationModel model, DocumentationOutput output) throws IOException {
+        Map<String, String> fragmentFiles = new LinkedHashMap<>();
+        Set<String> usedSlugs = new HashSet<>();
+        for (String tag : model.getEndpointsByTag().keySet()) {
+            String slug = slug(tag);
+            for (int i = 2; !usedSlugs.add(slug); i++) {
+                slug = slug(tag) + "-" + i;
+            }
+            fragmentFiles.put(tag, SHARD_PREFIX + "tag-" + slug + ".html");
+        }
+
+        for (Map.Entry<String, List<EndpointModel>> group : model.getEndpointsByTag().entrySet()) {
+            output.writeText(fragmentFiles.get(group.getKey()), html -> {
+                for (EndpointModel endpoint : group.getValue()) {
+                    html.append(fragmentCache.get(getFormat(), endpoint, this::renderEndpoint));
+                }
+            });
+        }
+        output.writeBinary(SEARCH_INDEX_FILE_NAME, out -> writeSearchIndex(out, model, fragmentFiles));
+        output.writeText(FILE_NAME, html -> writeIndex(html, model, fragmentFiles));
+    }
+
+    private void writeIndex(Writer html, DocumentationModel model, Map<String, String> fragmentFiles) throws IOException {
+        writeHead(html, model, INDEX_STYLES);
+
+        html.append("        <input id=\"search\" class=\"search\" type=\"search\" placeholder=\"Search endpoints...\">\n");
+        for (Map.Entry<String, List<EndpointModel>> group : model.getEndpointsByTag().entrySet()) {
+            html.append("        <details class=\"tag-section\" data-fragment=\"").append(fragmentFiles.get(group.getKey())).append("\">\n");
+            html.append("            <summary class=\"section-title\">").append(group.getKey())
+                    .append(" <span class=\"count\">(").append(String.valueOf(group.getValue().size())).append(")</span></summary>\n");
+            html.append("            <ul class=\"endpoint-list\">\n");
+            for (EndpointModel endpoint : group.getValue()) {
+                String anchor = anchorOf(endpoint);
+                html.append("                <li class=\"endpoint-row\" data-anchor=\"").append(anchor).append("\">")
+                        .append("<a href=\"#").append(anchor).append("\">")
+                        .append("<span class=\"method ").append(endpoint.getMethod()).append("\">").append(endpoint.getMethod()).append("</span>")
+                        .append("<span class=\"endpoint-path\">").append(endpoint.getPath()).append("</span></a>");
+                if (endpoint.getDescription() != null && !endpoint.getDescription().isEmpty()) {
+                    html.append(" <span class=\"description\">").append(endpoint.getDescription()).append("</span>");
+                }
+                html.append("</li>\n");
+            }
+            html.append("            </ul>\n");
+            html.append("            <div class=\"tag-details\"></div>\n");
+            html.append("        </details>\n");
+        }
+
+        html.append("    </div>\n");
+        html.append("    <script>\n");
+        html.append("        function loadSection(section) {\n");
+        html.append("            if (!section.loading) {\n");
+        html.append("                section.loading = fetch(section.dataset.fragment)\n");
+        html.append("                    .then(function (r) { return r.text(); })\n");
+        html.append("                    .then(function (t) { section.querySelector('.tag-details').innerHTML = t; });\n");
+        html.append("            }\n");
+        html.append("            return section.loading;\n");
+        html.append("        }\n");
+        html.append("        document.querySelectorAll('details.tag-section').forEach(function (section) {\n");
+        html.append("            section.addEventListener('toggle', function () { if (section.open) loadSection(section); });\n");
+        html.append("        });\n");
+        html.append("        document.querySelectorAll('.endpoint-row a').forEach(function (link) {\n");
+        html.append("            link.addEventListener('click', function (e) {\n");
+        html.append("                e.preventDefault();\n");
+        html.append("                var section = link.closest('details');\n");
+        html.append("                section.open = true;\n");
+        html.append("                loadSection(section).then(function () {\n");
+        html.append("                    var target = section.querySelector('#' + link.parentNode.dataset.anchor);\n");
+        html.append("                    if (target) target.scrollIntoView();\n");
+        html.append("                });\n");
+        html.append("            });\n");
+        html.append("        });\n");
+        html.append("        var searchIndex;\n");
+        html.append("        document.getElementById('search').addEventListener('input', function (e) {\n");
+        html.append("            var query = e.target.value.toLowerCase();\n");
+        html.append("            searchIndex = searchIndex || fetch('").append(SEARCH_INDEX_FILE_NAME).append("').then(function (r) { return r.json(); });\n");
+        html.append("            searchIndex.then(function (entries) {\n");
+        html.append("                var matches = {};\n");
+        html.append("                entries.forEach(function (entry) {\n");
+        html.append("                    if (!query || entry.text.indexOf(query) >= 0) matches[entry.anchor] = true;\n");
+        html.append("                });\n");
+        html.append("                document.querySelectorAll('.endpoint-row').forEach(function (row) {\n");
+        html.append("                    row.style.display = matches[row.dataset.anchor] ? '' : 'none';\n");
+        html.append("                });\n");
+        html.append("            });\n");
+        html.append("        });\n");
+        html.append("    </script>\n");
+        html.append("</body>\n</html>");
+    }
+
+    private void writeSearchIndex(OutputStream out, DocumentationModel model, Map<String, String> fragmentFiles) throws IOException {
+        try (JsonGenerator gen = JSON_FACTORY.createGenerator(out)) {
+            gen.writeStartArray();
+            for (Map.Entry<String, List<EndpointModel>> group : model.getEndpointsByTag().entrySet()) {
+                for (EndpointModel endpoint : group.getValue()) {
+                    gen.writeStartObject();
+                    gen.writeStringField("anchor", anchorOf(endpoint));
+                    gen.writeStringField("method", endpoint.getMethod());
+                    gen.writeStringField("path", endpoint.getPath());
+                    gen.writeStringField("tag", group.getKey());
+                    gen.writeStringField("fragment", fragmentFiles.get(group.getKey()));
+                    // Pre-lowercased haystack keeps matching in the browser a plain indexOf
+                    gen.writeStringField("text", (endpoint.getMethod() + " " + endpoint.getPath() + " "
+                            + Objects.toString(endpoint.getDescription(), "") + " " + group.getKey()).toLowerCase());
+                    gen.writeEndObject();
+                }
+            }
+            gen.writeEndArray();
+        }
+    }
+
+    private static String anchorOf(EndpointModel endpoint) {
+        return "endpoint-" + slug(endpoint.getMethod() + " " + endpoint.getPath());
+    }
+
+    static String slug(String value) {
+        String slug = value.toLowerCase().replaceAll("[^a-z0-9]+", "-").replaceAll("^-|-$", "");
+        return slug.isEmpty() ? "untagged" : slug;
+    }
+
+    private void writeHead(Writer html, DocumentationModel model, String extraStyles) throws IOException {
+        html.append("<!DOCTYPE html>\n<html lang=\"en\">\n<head>\n");
+        html.append("    <meta charset=\"UTF-8\">\n");
+        html.append("    <meta name=\"viewport\" content=\"width=device-width, initial-scale=1.0\">\n");
+        html.append("    <title>").append(model.getApplicationName()).append(" - API Documentation</title>\n");
+        html.append("    <style>\n");
+        html.append("        * { margin: 0; padding: 0; box-sizing: border-box; }\n");
+        html.append("        body { font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; background: #f5f7fa; color: #333; line-height: 1.6; }\n");
+        html.append("        .container { max-width: 1200px; margin: 0 auto; padding: 20px; }\n");
+        html.append("        .header { background: linear-gradient(135deg, #667eea 0%, #764ba2 100%); color: white; padding: 40px; border-radius: 10px; margin-bottom: 30px; box-shadow: 0 10px 30px rgba(0,0,0,0.1); }\n");
+        html.append("        .header h1 { font-size: 2.5em; margin-bottom: 10px; }\n");
+        html.append("        .header .version { font-size: 1.2em; opacity: 0.9; }\n");
+        html.append("        .server-info { background: white; padding: 25px; border-radius: 10px; margin-bottom: 30px; box-shadow: 0 2px 10px rgba(0,0,0,0.05); }\n");
+        html.append("        .server-info h2 { color: #667eea; margin-bottom: 15px; }\n");
+        html.append("        .server-info .info-grid { display: grid; grid-template-columns: repeat(auto-fit, minmax(250px, 1fr)); gap: 15px; }\n");
+        html.append("        .info-item { padding: 10px; background: #f8f9fa; border-radius: 5px; }\n");
+        html.append("        .info-item label { font-weight: bold; color: #666; display: block; margin-bottom: 5px; }\n");
+        html.append("        .info-item code { background: #e9ecef; padding: 5px 10px; border-radius: 3px; display: inline-block; }\n");
+        html.append("        .endpoint { background: white; padding: 25px; margin-bottom: 20px; border-radius: 10px; box-shadow: 0 2px 10px rgba(0,0,0,0.05); border-left: 4px solid #667eea; }\n");
+        html.append("        .endpoint-header { display: flex; align-items: center; margin-bottom: 15px; }\n");
+        html.append("        .method { display: inline-block; padding: 8px 15px; border-radius: 5px; color: white; font-weight: bold; margin-right: 15px; font-size: 0.9em; }\n");
+        html.append("        .GET { background: #61affe; }\n");
+        html.append("        .POST { background: #49cc90; }\n");
+        html.append("        .PUT { background: #fca130; }\n");
+        html.append("        .DELETE { background: #f93e3e; }\n");
+        html.append("        .PATCH { background: #50e3c2; }\n");
+        html.append("        .endpoint-path { font-size: 1.3em; font-weight: 600; color: #2c3e50; }\n");
+        html.append("        .endpoint-url { background: #f8f9fa; padding: 10px 15px; border-radius: 5px; font-family: 'Courier New', monospace; font-size: 0.9em; margin: 10px 0; word-break: break-all; }\n");
+        html.append("        .description { color: #666; margin: 15px 0; }\n");
+        html.append("        .tags { margin: 10px 0; }\n");
+        html.append("        .tag { background: #e3f2fd; color: #1976d2; padding: 5px 12px; border-radius: 15px; margin-right: 8px; font-size: 0.85em; display: inline-block; }\n");
+        html.append("        .parameters { margin-top: 20px; }\n");
+        html.append("        .parameters h4 { color: #667eea; margin-bottom: 10px; }\n");
+        html.append("        .param-table { width: 100%; border-collapse: collapse; margin-top: 10px; }\n");
+        html.append("        .param-table th { background: #f8f9fa; padding: 12px; text-align: left; font-weight: 600; border-bottom: 2px solid #dee2e6; }\n");
+        html.append("        .param-table td { padding: 12px; border-bottom: 1px solid #dee2e6; }\n");
+        html.append("        .param-table tr:hover { background: #f8f9fa; }\n");
+        html.append("        .required { color: #f93e3e; font-weight: bold; }\n");
+        html.append("        .curl-section { margin-top: 20px; }\n");
+        html.append("        .curl-section h4 { color: #667eea; margin-bottom: 10px; }\n");
+        html.append("        .curl-code { background: #2d2d2d; color: #f8f8f2; padding: 15px; border-radius: 5px; font-family: 'Courier New', monospace; font-size: 0.9em; overflow-x: auto; }\n");
+        html.append("        .section-title { color: #667eea; font-size: 2em; margin: 40px 0 20px 0; padding-bottom: 10px; border-bottom: 3px solid #667eea; }\n");
+        html.append("        .toc { background: white; padding: 25px; border-radius: 10px; margin-bottom: 30px; box-shadow: 0 2px 10px rgba(0,0,0,0.05); }\n");
+        html.append("        .toc h2 { color: #667eea; margin-bottom: 15px; }\n");
+        html.append("        .toc ul { list-style: none; }\n");
+        html.append("        .toc li { padding: 8px 0; }\n");
+        html.append("        .toc a { color: #667eea; text-decoration: none; transition: all 0.3s; }\n");
+        html.append("        .toc a:hover { color: #764ba2; padding-left: 10px; }\n");
+        html.append(extraStyles);
+        html.append("    </style>\n");
+        html.append("</head>\n<body>\n");
+        html.append("    <div class=\"container\">\n");
+        
+        // Header
+        html.append("        <div class=\"header\">\n");
+        html.append("            <h1>").append(model.getApplicationName()).append("</h1>\n");
+        html.append("            <div class=\"version\">Version: ").append(model.getVersion()).append("</div>\n");
+        html.append("            <div class=\"version\">").append(model.getDescription()).append("</div>\n");
+        html.append("            <div class=\"version\">Generated: ").append(model.getGeneratedAt().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"))).append("</div>\n");
+        html.append("        </div>\n");
+        
+        // Server Info
+        html.append("        <div class=\"server-info\">\n");
+        html.append("            <h2>Server Information</h2>\n");
+        html.append("            <div class=\"info-grid\">\n");
+        html.append("                <div class=\"info-item\"><label>Base URL</label><code>").append(model.getBaseUrl()).append("</code></div>\n");
+        html.append("                <div class=\"info-item\"><label>Port</label><code>").append(model.getPort()).append("</code></div>\n");
+        html.append("                <div class=\"info-item\"><label>Context Path</label><code>").append(model.getContextPath().isEmpty() ? "/" : model.getContextPath()).append("</code></div>\n");
+        html.append("                <div class=\"info-item\"><label>Total Endpoints</label><code>").append(String.valueOf(model.getEndpoints().size())).append("</code></div>\n");
+        html.append("            </div>\n");
+        html.append("        </div>\n");
+    }
+
+    private String renderEndpoint(EndpointModel endpoint) throws IOException {
+        StringWriter html = new StringWriter();
+        html.append("        <div class=\"endpoint\" id=\"").append(anchorOf(endpoint)).append("\">\n");
+        html.append("            <div class=\"endpoint-header\">\n");
+        html.append("                <span class=\"method ").append(endpoint.getMethod()).append("\">").append(endpoint.getMethod()).append("</span>\n");
+        html.append("                <span class=\"endpoint-path\">").append(endpoint.getPath()).append("</span>\n");
+        html.append("            </div>\n");
+
+        if (endpoint.getDescription() != null && !endpoint.getDescription().isEmpty()) {
+            html.append("            <div class=\"description\">").append(endpoint.getDescription()).append("</div>\n");
+        }
+
+        html.append("            <div class=\"endpoint-url\">").append(endpoint.getFullUrl()).append("</div>\n");
+
+        if (endpoint.getTags() != null && !endpoint.getTags().isEmpty()) {
+            html.append("            <div class=\"tags\">\n");
+            for (String t : endpoint.getTags()) {
+                html.append("                <span class=\"tag\">").append(t).append("</span>\n");
+            }
+            html.append("            </div>\n");
+        }
+
+        if (endpoint.getParameters() != null && !endpoint.getParameters().isEmpty()) {
+            html.append("            <div class=\"parameters\">\n");
+            html.append("                <h4>Parameters</h4>\n");
+            html.append("                <table class=\"param-table\">\n");
+            html.append("                    <thead><tr><th>Name</th><th>Type</th><th>Location</th><th>Required</th><th>Description</th></tr></thead>\n");
+            html.append("                    <tbody>\n");
+
+            for (ParamInfo param : endpoint.getParameters()) {
+                html.append("                        <tr>\n");
+                html.append("                            <td><strong>").append(param.getName()).append("</strong></td>\n");
+                html.append("                            <td>").append(param.getType()).append("</td>\n");
+                html.append("                            <td>").append(param.getLocation()).append("</td>\n");
+                html.append("                            <td>").append(param.isRequired() ? "<span class=\"required\">Yes</span>" : "No").append("</td>\n");
+                html.append("                            <td>").append(param.getDescription() != null ? param.getDescription() : "-").append("</td>\n");
+                html.append("                        </tr>\n");
+            }
+
+            html.append("                    </tbody>\n");
+            html.append("                </table>\n");
+            html.append("            </div>\n");
+        }
+
+        writeSchema(html, "Request Schema", endpoint.getRequestBody());
+        writeSchema(html, "Response Schema", endpoint.getResponseBody());
+
+        html.append("            <div class=\"curl-section\">\n");
+        html.append("                <h4>cURL Example</h4>\n");
+        html.append("                <div class=\"curl-code\">").append(HtmlUtils.htmlEscape(endpoint.getCurlExample())).append("</div>\n");
+        html.append("            </div>\n");
+
+        // Add samples section
+        if (endpoint.hasSamples()) {
+            html.append("            <div class=\"samples\">\n");
+
+            if (endpoint.getRequestSample() != null) {
+                html.append("                <div class=\"sample-section\">\n");
+                html.append("                    <h4>Sample Request</h4>\n");
+                html.append("                    <pre class=\"sample-code\">").append(HtmlUtils.htmlEscape(endpoint.getRequestSample())).append("</pre>\n");
+                html.append("                </div>\n");
+            }
+
+            if (endpoint.getHeadersSample() != null) {
+                html.append("                <div class=\"sample-section\">\n");
+                html.append("                    <h4>Sample Headers</h4>\n");
+                html.append("                    <pre class=\"sample-code\">").append(HtmlUtils.htmlEscape(endpoint.getHeadersSample())).append("</pre>\n");
+                html.append("                </div>\n");
+            }
+
+            if (endpoint.getResponseSample() != null) {
+                html.append("                <div class=\"sample-section\">\n");
+                html.append("                    <h4>Sample Response</h4>\n");
+                html.append("                    <pre class=\"sample-code\">").append(HtmlUtils.htmlEscape(endpoint.getResponseSample())).append("</pre>\n");
+                html.append("                </div>\n");
+            }
+
+            html.append("            </div>\n");
+        }
+
+        if (endpoint.hasTrackedRequests()) {
+            writeTrackedRequests(html, "Slowest Requests", endpoint.getSlowestRequests(), endpoint.getTrackedPayloadUrl());
+            writeTrackedRequests(html, "Recent Server Errors", endpoint.getRecentServerErrors(), endpoint.getTrackedPayloadUrl());
+        }
+
+        html.append("        </div>\n");
+        return html.toString();
+    }
+
+    // Request URIs come from clients, so they are escaped like samples and learned field names
+    private void writeTrackedRequests(Writer html, String title, List<TrackedRequest> requests, String payloadUrl) throws IOException {
+        if (requests == null || requests.isEmpty()) {
+            return;
+        }
+        html.append("            <div class=\"parameters\">\n");
+        html.append("                <h4>").append(title).append("</h4>\n");
+        html.append("                <table class=\"param-table\">\n");
+        html.append("                    <thead><tr><th>Time</th><th>Status</th><th>Latency</th><th>URI</th><th>Payload</th></tr></thead>\n");
+        html.append("                    <tbody>\n");
+        for (TrackedRequest request : requests) {
+            html.append("                        <tr>\n");
+            html.append("                            <td>").append(request.getTimestamp() != null ? request.getTimestamp().format(TRACKED_TIME) : "-").append("</td>\n");
+            html.append("                            <td>").append(String.valueOf(request.getStatusCode())).append("</td>\n");
+            html.append("                            <td>").append(String.valueOf(request.getExecutionTime())).append(" ms</td>\n");
+            html.append("                            <td>").append(HtmlUtils.htmlEscape(String.valueOf(request.getUri()))).append("</td>\n");
+            html.append("                            <td>").append(request.getPayloadFile() != null
+                    ? "<a href=\"" + payloadUrl + request.getId() + "\">" + request.getId() + "</a>" : "-").append("</td>\n");
+            html.append("                        </tr>\n");
+        }
+        html.append("                    </tbody>\n");
+        html.append("                </table>\n");
+        html.append("            </div>\n");
+    }
+
+    private void writeSchema(Writer html, String title, BodyInfo body) throws IOException {
+        if (body == null || body.getFields() == null || body.getFields().isEmpty()) {
+            return;
+        }
+        html.append("            <div class=\"parameters\">\n");
+        html.append("                <h4>").append(title).append(" (").append(String.valueOf(body.getSampleCount())).append(" samples)</h4>\n");
+        html.append("                <table class=\"param-table\">\n");
+        html.append("                    <thead><tr><th>Field</th><th>Types</th><th>Required</th><th>Presence</th><th>Cardinality</th></tr></thead>\n");
+        html.append("                    <tbody>\n");
+        for (FieldInfo field : body.getFields()) {
+            html.append("                        <tr>\n");
+            html.append("                            <td><strong>").append(HtmlUtils.htmlEscape(field.getName())).append("</strong></td>\n");
+            html.append("                            <td>").append(String.join(", ", field.getTypes())).append("</td>\n");
+            html.append("                            <td>").append(field.isRequired() ? "<span class=\"required\">Yes</span>" : "No").append("</td>\n");
+            html.append("                            <td>").append(String.format("%.0f%%", field.getPresenceRatio() * 100)).append("</td>\n");
+            html.append("                            <td>").append(String.valueOf(field.getCardinality())).append(field.isCardinalityCapped() ? "+" : "").append("</td>\n");
+            html.append("                        </tr>\n");
+        }
+        html.append("                    </tbody>\n");
+        html.append("                </table>\n");
+        html.append("            </div>\n");
+    }
+}
@@ -0,0 +1,56 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+@Component
+public class JsonDocumentationRenderer implements DocumentationRenderer {
+
+    static final String FILE_NAME = "complete-api-documentation.json";
+
+    private final ObjectMapper objectMapper;
+    private final DocumentationFragmentCache fragmentCache;
+
+    public JsonDocumentationRenderer(DocumentationFragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.enable(SerializationFeature.INDENT_OUTPUT);
+    }
+
+    @Override
+    public String getFormat() {
+        return "json";
+    }
+
+    @Override
+    public void render(DocumentationModel model, DocumentationOutput output) throws IOException {
+        // Stream endpoint by endpoint so the document never exists as a whole tree in memory
+        output.writeBinary(FILE_NAME, out -> writeDocument(out, model));
+    }
+
+    private void writeDocument(OutputStream out, DocumentationModel model) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartObject();
+            gen.writeFieldName("application");
+            objectMapper.writeValue(gen, model.toApplicationInfo());
+            gen.writeFieldName("server");
+            objectMapper.writeValue(gen, model.toServerInfo());
+            gen.writeObjectFieldStart("api");
+            gen.writeNumberField("totalEndpoints", model.getEndpoints().size());
+            gen.writeArrayFieldStart("endpoints");
+            for (EndpointModel endpoint : model.getEndpoints()) {
+                gen.writeRawValue(fragmentCache.get(getFormat(), endpoint,
+                        e -> objectMapper.writeValueAsString(e.toDocumentationEntry())));
+            }
+            gen.writeEndArray();
+            gen.writeEndObject();
+            gen.writeEndObject();
+        }
+    }
+}
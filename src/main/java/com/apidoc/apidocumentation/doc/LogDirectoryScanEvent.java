@@ -0,0 +1,26 @@
+package com.apidoc.apidocumentation.doc;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+@Name("com.apidoc.LogDirectoryScan")
+@Label("API Log Directory Scan")
+@Category({"API Documentation", "Persistence"})
+@Description("Listing the log directory, and reading or deleting the matching logs")
+@StackTrace(false)
+@Threshold("1 ms")
+class LogDirectoryScanEvent extends jdk.jfr.Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Directory")
+    String directory;
+
+    @Label("Files Matched")
+    int filesMatched;
+}
@@ -0,0 +1,531 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+// Tiered retention for unique log files: full logs for the newest hours, then one sample per endpoint and status
+// class plus daily statistics, then daily statistics only
+@Service
+public class LogRetentionCompactor {
+
+    static final String DIRECTORY = "retention";
+    static final String SAMPLES_FILE = "samples.json";
+    static final String DAY_FILE_PREFIX = "statistics-";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("HHmmss-SSS");
+
+    @Value("${apidoc.retention.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apidoc.retention.full-hours:24}")
+    private long fullHours;
+
+    @Value("${apidoc.retention.sample-days:30}")
+    private long sampleDays;
+
+    // 0 keeps daily statistics forever
+    @Value("${apidoc.retention.statistics-days:365}")
+    private long statisticsDays;
+
+    @Value("${apidoc.retention.interval-minutes:10}")
+    private long intervalMinutes;
+
+    // Logs read per step; each step is written out and its logs deleted before the next one starts
+    @Value("${apidoc.retention.batch-size:500}")
+    private int batchSize;
+
+    @Value("${apidoc.log.directory:api-logs}")
+    private String logDirectory;
+
+    @Value("${apidoc.log.format:json}")
+    private String logFormat;
+
+    private final ApiLogFileService logService;
+    private final ObjectMapper objectMapper;
+    // Replaced, never mutated, once published, so history queries read them without locking
+    private final ConcurrentSkipListMap<LocalDate, RetentionDay> days = new ConcurrentSkipListMap<>();
+    private volatile Map<String, RetentionSample> samples = Map.of();
+    private final LongAdder compactedLogs = new LongAdder();
+    private final LongAdder deletedLogs = new LongAdder();
+    private Path directory;
+    private ScheduledExecutorService executor;
+
+    public LogRetentionCompactor(ApiLogFileService logService) {
+        this.logService = logService;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    @PostConstruct
+    public void init() {
+        directory = Paths.get(logDirectory, DIRECTORY);
+        try {
+            Files.createDirectories(directory);
+            load();
+        } catch (IOException e) {
+            System.err.println("Failed to load retention statistics: " + e.getMessage());
+        }
+        if (!enabled) {
+            return;
+        }
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "apidoc-retention");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::compact, 1, Math.max(1, intervalMinutes), TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    // Statistics and samples are read again from a log directory a cluster merge has replaced
+    public synchronized void reload() {
+        days.clear();
+        samples = Map.of();
+        try {
+            Files.createDirectories(directory);
+            load();
+        } catch (IOException e) {
+            System.err.println("Failed to load retention statistics: " + e.getMessage());
+        }
+    }
+
+    public synchronized Map<String, Object> compact() {
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime sampleCutoff = now.minusDays(sampleDays);
+        long[] counts = new long[5];
+        try {
+            List<StoredLog> due = listDue(now.minusHours(fullHours));
+            for (int from = 0; from < due.size(); from += Math.max(1, batchSize)) {
+                compactBatch(due.subList(from, Math.min(due.size(), from + Math.max(1, batchSize))),
+                        sampleCutoff, counts);
+            }
+            counts[3] = expireSamples(sampleCutoff);
+            counts[4] = expireStatistics(now.toLocalDate());
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Log retention compaction failed: " + e.getMessage());
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("logsCompacted", counts[0]);
+        result.put("logsDeleted", counts[1]);
+        result.put("samplesReplaced", counts[2]);
+        result.put("samplesExpired", counts[3]);
+        result.put("statisticsDaysExpired", counts[4]);
+        result.put("samplesKept", samples.size());
+        result.put("tookMillis", (System.nanoTime() - start) / 1_000_000.0);
+        return result;
+    }
+
+    // Daily statistics of compacted logs; groupBy is day, endpoint, method, status or none
+    public Map<String, Object> history(String groupBy, LocalDate from, LocalDate to,
+                                       String endpoint, String method, String status) {
+        long start = System.nanoTime();
+        String dimension = groupBy == null || groupBy.isBlank() ? "day" : groupBy.trim().toLowerCase();
+        if (!List.of("day", "endpoint", "method", "status", "none").contains(dimension)) {
+            throw new IllegalArgumentException("groupBy must be one of day, endpoint, method, status or none");
+        }
+        StatusRange statusRange = StatusRange.parse(status);
+        if (statusRange != StatusRange.ANY && statusRange.to - statusRange.from != 99) {
+            throw new IllegalArgumentException("compacted history keeps status classes only, e.g. 5xx");
+        }
+        String endpointFilter = endpoint == null || endpoint.isBlank() ? null : endpoint.trim();
+        String methodFilter = method == null || method.isBlank() ? null : method.trim();
+
+        Map<String, Group> groups = new TreeMap<>();
+        Map<LocalDate, RetentionDay> range = from == null && to == null ? days
+                : days.subMap(from != null ? from : LocalDate.MIN, true, to != null ? to : LocalDate.MAX, true);
+        for (RetentionDay day : range.values()) {
+            for (RetentionStatistic statistic : day.getStatistics()) {
+                if ((endpointFilter != null && !endpointFilter.equals(statistic.getEndpoint()))
+                        || (methodFilter != null && !methodFilter.equalsIgnoreCase(statistic.getMethod()))
+                        || !statusRange.contains(statusClassBase(statistic.getStatusClass()))) {
+                    continue;
+                }
+                String key = switch (dimension) {
+                    case "day" -> day.getDay().toString();
+                    case "endpoint" -> statistic.getMethod() + " " + statistic.getEndpoint();
+                    case "method" -> statistic.getMethod();
+                    case "status" -> statistic.getStatusClass();
+                    default -> "all";
+                };
+                groups.computeIfAbsent(key, k -> new Group()).add(statistic);
+            }
+        }
+
+        List<RequestSummaryGroup> result = new ArrayList<>();
+        long requests = 0;
+        for (Map.Entry<String, Group> group : groups.entrySet()) {
+            result.add(group.getValue().toGroup(group.getKey()));
+            requests += group.getValue().count;
+        }
+        if (!"day".equals(dimension)) {
+            result.sort(Comparator.comparingLong(RequestSummaryGroup::getCount).reversed());
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("groupBy", dimension);
+        body.put("daysScanned", range.size());
+        body.put("requests", requests);
+        body.put("tookMillis", (System.nanoTime() - start) / 1_000_000.0);
+        body.put("groups", result);
+        return body;
+    }
+
+    public int getSampleCount() {
+        return samples.size();
+    }
+
+    public long getCompactedLogs() {
+        return compactedLogs.sum();
+    }
+
+    public long getDeletedLogs() {
+        return deletedLogs.sum();
+    }
+
+    // Unique logs past the full-payload period, oldest first; latest-per-endpoint files and kept samples are skipped
+    private List<StoredLog> listDue(LocalDateTime fullCutoff) throws IOException {
+        Set<String> kept = new HashSet<>();
+        samples.values().forEach(sample -> kept.add(sample.getFile()));
+        String suffix = "." + logFormat;
+        List<StoredLog> due = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(logDirectory))) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                if (!name.endsWith(suffix) || name.startsWith(".") || name.endsWith("_latest" + suffix)
+                        || kept.contains(name) || !Files.isRegularFile(path)) {
+                    continue;
+                }
+                LocalDateTime capturedAt = capturedAt(path);
+                if (capturedAt != null && capturedAt.isBefore(fullCutoff)) {
+                    due.add(new StoredLog(path, name, capturedAt));
+                }
+            }
+        }
+        due.sort(Comparator.comparing((StoredLog stored) -> stored.capturedAt).thenComparing(stored -> stored.name));
+        return due;
+    }
+
+    private void compactBatch(List<StoredLog> batch, LocalDateTime sampleCutoff, long[] counts) throws IOException {
+        Map<LocalDate, DayUpdate> updates = new TreeMap<>();
+        Map<String, RetentionSample> nextSamples = new HashMap<>(samples);
+        List<Path> obsolete = new ArrayList<>();
+        for (StoredLog stored : batch) {
+            ApiLog log = logService.readStoredLog(stored.path);
+            if (log == null) {
+                // Unreadable and past its full-payload period, so there is nothing left to keep
+                obsolete.add(stored.path);
+                continue;
+            }
+            DayUpdate update = updates.computeIfAbsent(stored.capturedAt.toLocalDate(),
+                    day -> new DayUpdate(days.get(day), day));
+            if (update.add(stored, log)) {
+                counts[0]++;
+                compactedLogs.increment();
+            }
+
+            String key = log.getMethod() + " " + log.getEndpoint() + " " + statusClass(log.getStatusCode());
+            RetentionSample previous = nextSamples.get(key);
+            if (!stored.capturedAt.isBefore(sampleCutoff) && (previous == null || replaces(stored, log, previous))) {
+                nextSamples.put(key, RetentionSample.builder()
+                        .file(stored.name)
+                        .captureLevel(log.getCaptureLevel())
+                        .build());
+                if (previous != null) {
+                    obsolete.add(Paths.get(logDirectory, previous.getFile()));
+                    counts[2]++;
+                }
+            } else {
+                obsolete.add(stored.path);
+            }
+        }
+
+        // Statistics first: if the step stops before the deletes, the watermark stops the logs being counted again
+        for (DayUpdate update : updates.values()) {
+            if (update.changed) {
+                write(dayFile(update.day.getDay()), update.day);
+            }
+        }
+        write(directory.resolve(SAMPLES_FILE), nextSamples);
+        for (DayUpdate update : updates.values()) {
+            days.put(update.day.getDay(), update.day);
+        }
+        samples = nextSamples;
+        counts[1] += delete(obsolete);
+    }
+
+    private long expireSamples(LocalDateTime sampleCutoff) throws IOException {
+        Map<String, RetentionSample> nextSamples = new HashMap<>(samples);
+        List<Path> expired = new ArrayList<>();
+        nextSamples.values().removeIf(sample -> {
+            Path path = Paths.get(logDirectory, sample.getFile());
+            if (!Files.exists(path)) {
+                return true;
+            }
+            LocalDateTime capturedAt = capturedAt(path);
+            if (capturedAt != null && capturedAt.isBefore(sampleCutoff)) {
+                expired.add(path);
+                return true;
+            }
+            return false;
+        });
+        if (nextSamples.size() == samples.size()) {
+            return 0;
+        }
+        write(directory.resolve(SAMPLES_FILE), nextSamples);
+        samples = nextSamples;
+        return delete(expired);
+    }
+
+    private long expireStatistics(LocalDate today) throws IOException {
+        if (statisticsDays <= 0) {
+            return 0;
+        }
+        long expired = 0;
+        for (LocalDate day : new ArrayList<>(days.headMap(today.minusDays(statisticsDays)).keySet())) {
+            Files.deleteIfExists(dayFile(day));
+            days.remove(day);
+            expired++;
+        }
+        return expired;
+    }
+
+    private long delete(List<Path> paths) {
+        long deleted = 0;
+        for (Path path : paths) {
+            try {
+                logService.deleteLog(path);
+                deleted++;
+            } catch (IOException e) {
+                System.err.println("Failed to delete compacted log: " + path + " - " + e.getMessage());
+            }
+        }
+        deletedLogs.add(deleted);
+        return deleted;
+    }
+
+    private void load() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, DAY_FILE_PREFIX + "*.json")) {
+            for (Path path : files) {
+                try {
+                    RetentionDay day = objectMapper.readValue(path.toFile(), RetentionDay.class);
+                    days.put(day.getDay(), day);
+                } catch (IOException e) {
+                    System.err.println("Failed to read retention statistics: " + path + " - " + e.getMessage());
+                }
+            }
+        }
+        Path samplesFile = directory.resolve(SAMPLES_FILE);
+        if (Files.exists(samplesFile)) {
+            samples = objectMapper.readValue(samplesFile.toFile(), new TypeReference<HashMap<String, RetentionSample>>() {
+            });
+        }
+    }
+
+    private void write(Path target, Object value) throws IOException {
+        AtomicFiles.write(target, out -> objectMapper.writeValue(out, value));
+    }
+
+    private Path dayFile(LocalDate day) {
+        return directory.resolve(DAY_FILE_PREFIX + day + ".json");
+    }
+
+    // Unique log names are <date>_<method>_<endpoint>_<HHmmss-SSS>_<id>.<format>, so age is known without reading
+    // the log; the endpoint part may itself contain underscores
+    static LocalDateTime capturedAt(Path path) {
+        String name = path.getFileName().toString();
+        String[] parts = name.substring(0, name.lastIndexOf('.')).split("_", -1);
+        if (parts.length >= 5) {
+            try {
+                return LocalDate.parse(parts[0]).atTime(LocalTime.parse(parts[parts.length - 2], FILE_TIME));
+            } catch (DateTimeParseException e) {
+                // Not a unique log name; fall back to the modification time
+            }
+        }
+        try {
+            return LocalDateTime.ofInstant(Files.getLastModifiedTime(path).toInstant(), ZoneId.systemDefault());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private static String statusClass(Integer statusCode) {
+        return (statusCode != null ? statusCode / 100 : 0) + "xx";
+    }
+
+    private static int statusClassBase(String statusClass) {
+        return statusClass != null && !statusClass.isEmpty() ? (statusClass.charAt(0) - '0') * 100 : 0;
+    }
+
+    // A fuller capture wins; between equal levels the newer log does
+    private boolean replaces(StoredLog candidate, ApiLog log, RetentionSample previous) {
+        int order = Integer.compare(level(log.getCaptureLevel()), level(previous.getCaptureLevel()));
+        if (order != 0) {
+            return order < 0;
+        }
+        LocalDateTime previousCapturedAt = capturedAt(Paths.get(logDirectory, previous.getFile()));
+        return previousCapturedAt == null || !candidate.capturedAt.isBefore(previousCapturedAt);
+    }
+
+    static int level(CaptureLevel level) {
+        return level != null ? level.ordinal() : 0;
+    }
+
+    static void merge(RetentionStatistic target, RetentionStatistic source) {
+        target.setCount(target.getCount() + source.getCount());
+        target.setLatencyMicrosTotal(target.getLatencyMicrosTotal() + source.getLatencyMicrosTotal());
+        target.setMaxLatencyMicros(Math.max(target.getMaxLatencyMicros(), source.getMaxLatencyMicros()));
+        source.getHistogram().forEach((bucket, count) -> target.getHistogram().merge(bucket, count, Long::sum));
+    }
+
+    private static double percentile(TreeMap<Integer, Long> histogram, long total, double quantile) {
+        long rank = (long) Math.ceil(total * quantile);
+        long seen = 0;
+        int last = 0;
+        for (Map.Entry<Integer, Long> bucket : histogram.entrySet()) {
+            seen += bucket.getValue();
+            last = bucket.getKey();
+            if (seen >= rank) {
+                break;
+            }
+        }
+        return total > 0 ? RequestSummaryStore.bucketMidpoint(last) : 0;
+    }
+
+    private static final class Group {
+        long count;
+        long serverErrors;
+        long latencyMicrosTotal;
+        long maxLatencyMicros;
+        final TreeMap<Integer, Long> histogram = new TreeMap<>();
+
+        void add(RetentionStatistic statistic) {
+            count += statistic.getCount();
+            if ("5xx".equals(statistic.getStatusClass())) {
+                serverErrors += statistic.getCount();
+            }
+            latencyMicrosTotal += statistic.getLatencyMicrosTotal();
+            maxLatencyMicros = Math.max(maxLatencyMicros, statistic.getMaxLatencyMicros());
+            statistic.getHistogram().forEach((bucket, bucketCount) -> histogram.merge(bucket, bucketCount, Long::sum));
+        }
+
+        RequestSummaryGroup toGroup(String key) {
+            return RequestSummaryGroup.builder()
+                    .key(key)
+                    .count(count)
+                    .serverErrors(serverErrors)
+                    .errorRate(serverErrors / (double) count)
+                    .avgMs(latencyMicrosTotal / (double) count / 1_000.0)
+                    .p50Ms(percentile(histogram, count, 0.50) / 1_000.0)
+                    .p90Ms(percentile(histogram, count, 0.90) / 1_000.0)
+                    .p99Ms(percentile(histogram, count, 0.99) / 1_000.0)
+                    .maxMs(maxLatencyMicros / 1_000.0)
+                    .build();
+        }
+    }
+
+    private static final class StoredLog {
+        final Path path;
+        final String name;
+        final LocalDateTime capturedAt;
+
+        StoredLog(Path path, String name, LocalDateTime capturedAt) {
+            this.path = path;
+            this.name = name;
+            this.capturedAt = capturedAt;
+        }
+    }
+
+    // A private copy of one day's statistics, published only after it has been written
+    private static final class DayUpdate {
+        final RetentionDay day;
+        final Map<String, RetentionStatistic> byKey = new HashMap<>();
+        boolean changed;
+
+        DayUpdate(RetentionDay existing, LocalDate date) {
+            day = RetentionDay.builder().day(date).build();
+            if (existing != null) {
+                day.setCompactedThrough(existing.getCompactedThrough());
+                day.setCompactedThroughFile(existing.getCompactedThroughFile());
+                for (RetentionStatistic statistic : existing.getStatistics()) {
+                    RetentionStatistic copy = RetentionStatistic.builder()
+                            .method(statistic.getMethod())
+                            .endpoint(statistic.getEndpoint())
+                            .statusClass(statistic.getStatusClass())
+                            .build();
+                    merge(copy, statistic);
+                    day.getStatistics().add(copy);
+                    byKey.put(copy.getMethod() + " " + copy.getEndpoint() + " " + copy.getStatusClass(), copy);
+                }
+            }
+        }
+
+        // False when an earlier, interrupted step already counted this log
+        boolean add(StoredLog stored, ApiLog log) {
+            if (day.getCompactedThrough() != null) {
+                int order = stored.capturedAt.compareTo(day.getCompactedThrough());
+                if (order < 0 || (order == 0 && stored.name.compareTo(day.getCompactedThroughFile()) <= 0)) {
+                    return false;
+                }
+            }
+            String statusClass = statusClass(log.getStatusCode());
+            RetentionStatistic statistic = byKey.computeIfAbsent(
+                    log.getMethod() + " " + log.getEndpoint() + " " + statusClass, key -> {
+                        RetentionStatistic created = RetentionStatistic.builder()
+                                .method(log.getMethod())
+                                .endpoint(log.getEndpoint())
+                                .statusClass(statusClass)
+                                .build();
+                        day.getStatistics().add(created);
+                        return created;
+                    });
+            int micros = RequestSummaryStore.latencyMicros(log);
+            statistic.setCount(statistic.getCount() + 1);
+            statistic.setLatencyMicrosTotal(statistic.getLatencyMicrosTotal() + micros);
+            statistic.setMaxLatencyMicros(Math.max(statistic.getMaxLatencyMicros(), micros));
+            statistic.getHistogram().merge(RequestSummaryStore.bucket(micros), 1L, Long::sum);
+            day.setCompactedThrough(stored.capturedAt);
+            day.setCompactedThroughFile(stored.name);
+            changed = true;
+            return true;
+        }
+    }
+}
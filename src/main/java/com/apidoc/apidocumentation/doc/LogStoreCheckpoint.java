@@ -0,0 +1,357 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32;
+
+// Checkpoints the state listeners derive from the log directory, so a restart loads it and replays only the logs
+// written since instead of reading every file
+@Service
+public class LogStoreCheckpoint {
+
+    static final String DIRECTORY = "checkpoint";
+    private static final String FILE = "listeners.ckpt";
+    private static final String WATERMARK_FILE = "watermark";
+    private static final int MAGIC = 0x41504350;
+    private static final int VERSION = 1;
+    private static final long WRITER_TIMEOUT_SECONDS = 30;
+
+    @Value("${apidoc.checkpoint.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apidoc.checkpoint.interval-seconds:60}")
+    private long intervalSeconds;
+
+    @Value("${apidoc.log.directory:api-logs}")
+    private String logDirectory;
+
+    @Value("${apidoc.log.format:json}")
+    private String logFormat;
+
+    private final ApiLogDispatcher dispatcher;
+    private final ApiLogFileService logService;
+    private final List<CheckpointedListener> listeners;
+    private final ObjectMapper objectMapper;
+    private final LongAdder checkpointsWritten = new LongAdder();
+    private Path directory;
+    private ScheduledExecutorService executor;
+    // Logs processed by the writer when the last checkpoint was taken; nothing is written while it is unchanged
+    private long checkpointedLogs = -1;
+    private volatile Instant lastCheckpointAt;
+    private volatile long lastCheckpointBytes;
+    private volatile double lastCheckpointMillis;
+    private volatile String restoredFrom = "none";
+    private volatile long logsReplayed;
+    private volatile double restoreMillis;
+
+    public LogStoreCheckpoint(ApiLogDispatcher dispatcher, ApiLogFileService logService,
+                              List<CheckpointedListener> listeners) {
+        this.dispatcher = dispatcher;
+        this.logService = logService;
+        this.listeners = listeners;
+        this.objectMapper = new ObjectMapper();
+        this.objectMapper.registerModule(new JavaTimeModule());
+        this.objectMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    // Runs before the web server starts, so no log reaches the listeners while their state is being restored
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(logDirectory, DIRECTORY);
+        long start = System.nanoTime();
+        try {
+            Files.createDirectories(directory);
+            if (!restoreCheckpoint()) {
+                logsReplayed = rebuild();
+                restoredFrom = "rebuild";
+            }
+        } catch (IOException e) {
+            System.err.println("Failed to restore log store state: " + e.getMessage());
+        }
+        restoreMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "apidoc-checkpoint");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::checkpointIfChanged, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    // Dispatcher shutdown comes after this, so logs still queued are replayed from their files on the next start
+    @PreDestroy
+    public void shutdown() {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdownNow();
+        checkpointIfChanged();
+    }
+
+    public synchronized Map<String, Object> checkpoint() {
+        if (!enabled) {
+            return getStatus();
+        }
+        long start = System.nanoTime();
+        try {
+            Snapshot snapshot = dispatcher.runOnWriter(this::snapshot).get(WRITER_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            byte[] payload = objectMapper.writeValueAsBytes(snapshot.state);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            AtomicFiles.write(directory.resolve(FILE), out -> {
+                DataOutputStream data = new DataOutputStream(out);
+                data.writeInt(MAGIC);
+                data.writeInt(VERSION);
+                data.writeLong(snapshot.watermark.to(TimeUnit.NANOSECONDS));
+                data.writeInt(payload.length);
+                data.writeLong(crc.getValue());
+                data.write(payload);
+                data.flush();
+            });
+            checkpointedLogs = snapshot.processedLogs;
+            checkpointsWritten.increment();
+            lastCheckpointAt = Instant.now();
+            lastCheckpointBytes = payload.length;
+            lastCheckpointMillis = (System.nanoTime() - start) / 1_000_000.0;
+        } catch (RejectedExecutionException | TimeoutException e) {
+            // The writer is saturated; the next interval tries again
+            System.err.println("Skipped log store checkpoint: writer queue is busy");
+        } catch (IOException | ExecutionException e) {
+            System.err.println("Failed to write log store checkpoint: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return getStatus();
+    }
+
+    // The log directory was replaced underneath the listeners, e.g. by a cluster merge: they start over from the
+    // logs now in it, on the writer so no live log interleaves, and the old checkpoint is overwritten right after
+    public synchronized Map<String, Object> reload() {
+        long start = System.nanoTime();
+        try {
+            logsReplayed = dispatcher.runOnWriter(() -> {
+                if (enabled) {
+                    Files.createDirectories(directory);
+                }
+                return rebuild();
+            }).get();
+            restoredFrom = "rebuild";
+        } catch (RejectedExecutionException | ExecutionException e) {
+            System.err.println("Failed to rebuild log store state: " + e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        restoreMillis = (System.nanoTime() - start) / 1_000_000.0;
+        return checkpoint();
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("restoredFrom", restoredFrom);
+        status.put("logsReplayed", logsReplayed);
+        status.put("restoreMillis", restoreMillis);
+        status.put("lastCheckpointAt", lastCheckpointAt != null ? lastCheckpointAt.toString() : null);
+        status.put("lastCheckpointBytes", lastCheckpointBytes);
+        status.put("lastCheckpointMillis", lastCheckpointMillis);
+        return status;
+    }
+
+    public long getCheckpointsWritten() {
+        return checkpointsWritten.sum();
+    }
+
+    public long getLastCheckpointBytes() {
+        return lastCheckpointBytes;
+    }
+
+    private void checkpointIfChanged() {
+        if (dispatcher.getProcessedLogs() != checkpointedLogs) {
+            checkpoint();
+        }
+    }
+
+    // Writer thread: listener state is converted to trees here and serialized off the writer
+    private Snapshot snapshot() throws IOException, InterruptedException {
+        FileTime watermark = advanceWatermark();
+        ObjectNode state = objectMapper.createObjectNode();
+        for (CheckpointedListener listener : listeners) {
+            state.set(listener.checkpointName(), listener.checkpointState(objectMapper));
+        }
+        return new Snapshot(watermark, dispatcher.getProcessedLogs(), state);
+    }
+
+    // File times come from the kernel's coarse clock, so the watermark is a file time too: rewritten until it
+    // moves past the tick of the last log written, every earlier log is strictly older and every later one not
+    private FileTime advanceWatermark() throws IOException, InterruptedException {
+        Path marker = directory.resolve(WATERMARK_FILE);
+        Files.write(marker, new byte[]{1});
+        FileTime previous = Files.getLastModifiedTime(marker);
+        FileTime watermark = previous;
+        for (int attempt = 0; attempt < 1000 && watermark.compareTo(previous) <= 0; attempt++) {
+            Thread.sleep(1);
+            Files.write(marker, new byte[]{1});
+            watermark = Files.getLastModifiedTime(marker);
+        }
+        return watermark;
+    }
+
+    private boolean restoreCheckpoint() throws IOException {
+        Path file = directory.resolve(FILE);
+        if (!Files.exists(file)) {
+            return false;
+        }
+        FileTime watermark;
+        JsonNode state;
+        try (InputStream in = Files.newInputStream(file)) {
+            DataInputStream data = new DataInputStream(in);
+            if (data.readInt() != MAGIC || data.readInt() != VERSION) {
+                throw new IOException("unknown checkpoint format");
+            }
+            watermark = FileTime.from(data.readLong(), TimeUnit.NANOSECONDS);
+            byte[] payload = new byte[data.readInt()];
+            long checksum = data.readLong();
+            data.readFully(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != checksum) {
+                throw new IOException("checksum mismatch");
+            }
+            state = objectMapper.readTree(payload);
+            for (CheckpointedListener listener : listeners) {
+                // A listener added since the checkpoint needs every log, not just the newer ones
+                if (!state.has(listener.checkpointName())) {
+                    throw new IOException("no state for " + listener.checkpointName());
+                }
+                listener.restoreCheckpoint(state.get(listener.checkpointName()), objectMapper);
+            }
+        } catch (IOException | RuntimeException e) {
+            System.err.println("Log store checkpoint is unusable, rebuilding from the log directory: " + e.getMessage());
+            return false;
+        }
+
+        List<Path> newer = listLogs(watermark);
+        newer.sort(Comparator.comparing(LogStoreCheckpoint::lastModified));
+        long replayed = 0;
+        for (Path path : newer) {
+            ApiLog log = readForReplay(path);
+            if (log != null) {
+                apply(log);
+                replayed++;
+            }
+        }
+        logsReplayed = replayed;
+        restoredFrom = "checkpoint";
+        return true;
+    }
+
+    // Listener state is concurrent and does not depend on the order logs arrive in, so files are read in parallel
+    private long rebuild() throws IOException {
+        for (CheckpointedListener listener : listeners) {
+            listener.restoreCheckpoint(null, objectMapper);
+        }
+        // Text logs are read for their header fields, exactly as a checkpoint replay reads them
+        AtomicLong rebuilt = new AtomicLong();
+        listLogs(null).parallelStream()
+                .map(this::readForReplay)
+                .filter(Objects::nonNull)
+                .forEach(log -> {
+                    apply(log);
+                    rebuilt.incrementAndGet();
+                });
+        return rebuilt.get();
+    }
+
+    private ApiLog readForReplay(Path path) {
+        ApiLog log = logService.readStoredLog(path);
+        if (log != null) {
+            log.setStoredFile(path.getFileName().toString());
+        }
+        return log;
+    }
+
+    private void apply(ApiLog log) {
+        if (log.getMethod() == null || log.getEndpoint() == null) {
+            return;
+        }
+        for (CheckpointedListener listener : listeners) {
+            try {
+                listener.onLog(log);
+            } catch (RuntimeException e) {
+                System.err.println("API log listener failed: " + e.getMessage());
+            }
+        }
+    }
+
+    // Log files in the top-level directory, optionally only those written at or after the watermark
+    private List<Path> listLogs(FileTime watermark) throws IOException {
+        String suffix = "." + logFormat;
+        List<Path> logs = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(logDirectory))) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                if (name.endsWith(suffix) && !name.startsWith(".") && Files.isRegularFile(path)
+                        && (watermark == null || lastModified(path).compareTo(watermark) >= 0)) {
+                    logs.add(path);
+                }
+            }
+        }
+        return logs;
+    }
+
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (IOException e) {
+            // Deleted meanwhile, e.g. by retention compaction; replaying it would fail anyway
+            return FileTime.fromMillis(0);
+        }
+    }
+
+    private static final class Snapshot {
+        final FileTime watermark;
+        final long processedLogs;
+        final JsonNode state;
+
+        Snapshot(FileTime watermark, long processedLogs, JsonNode state) {
+            this.watermark = watermark;
+            this.processedLogs = processedLogs;
+            this.state = state;
+        }
+    }
+}
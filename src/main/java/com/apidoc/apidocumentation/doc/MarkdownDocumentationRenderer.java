@@ -0,0 +1,138 @@
+package com.apidoc.apidocumentation.doc;
+
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.Map;
+
+@Component
+public class MarkdownDocumentationRenderer implements DocumentationRenderer {
+
+    static final String FILE_NAME = "API-DOCUMENTATION.md";
+
+    private final DocumentationFragmentCache fragmentCache;
+
+    public MarkdownDocumentationRenderer(DocumentationFragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+    }
+
+    @Override
+    public String getFormat() {
+        return "markdown";
+    }
+
+    @Override
+    public void render(DocumentationModel model, DocumentationOutput output) throws IOException {
+        output.writeText(FILE_NAME, md -> writeMarkdown(md, model));
+    }
+
+    private void writeMarkdown(Writer md, DocumentationModel model) throws IOException {
+        // Title and Overview
+        md.append("# ").append(model.getApplicationName()).append(" - API Documentation\n\n")
+                .append("**Version:** ").append(model.getVersion()).append("\n\n")
+                .append("**Generated:** ").append(model.getGeneratedAt().format(DateTimeFormatter.ISO_DATE_TIME)).append("\n\n")
+                .append("**Description:** ").append(model.getDescription()).append("\n\n");
+
+        // Server Information
+        md.append("## Server Information\n\n")
+                .append("- **Base URL:** `").append(model.getBaseUrl()).append("`\n")
+                .append("- **Port:** ").append(model.getPort()).append("\n")
+                .append("- **Context Path:** ").append(model.getContextPath().isEmpty() ? "/" : model.getContextPath()).append("\n\n");
+
+        // Table of Contents
+        md.append("## Table of Contents\n\n");
+        for (String tag : model.getEndpointsByTag().keySet()) {
+            md.append("- [").append(tag).append("](#").append(tag.toLowerCase().replace(" ", "-")).append(")\n");
+        }
+        md.append("\n---\n\n");
+
+        // Endpoints by Tag
+        for (Map.Entry<String, List<EndpointModel>> group : model.getEndpointsByTag().entrySet()) {
+            md.append("## ").append(group.getKey()).append("\n\n");
+
+            for (EndpointModel endpoint : group.getValue()) {
+                md.append(fragmentCache.get(getFormat(), endpoint, this::renderEndpoint));
+            }
+        }
+    }
+
+    private String renderEndpoint(EndpointModel endpoint) throws IOException {
+        StringWriter md = new StringWriter();
+        md.append("### ").append(endpoint.getMethod()).append(" ").append(endpoint.getPath()).append("\n\n");
+
+        if (endpoint.getDescription() != null && !endpoint.getDescription().isEmpty()) {
+            md.append("**Description:** ").append(endpoint.getDescription()).append("\n\n");
+        }
+
+        md.append("**Full URL:** `").append(endpoint.getFullUrl()).append("`\n\n");
+
+        // Sample Request
+        if (endpoint.getRequestSample() != null && !"GET".equalsIgnoreCase(endpoint.getMethod())) {
+            md.append("**Sample Request:**\n```json\n")
+                    .append(endpoint.getRequestSample())
+                    .append("\n```\n\n");
+        }
+
+        // Sample Headers
+        if (endpoint.getHeadersSample() != null) {
+            md.append("**Sample Headers:**\n```json\n")
+                    .append(endpoint.getHeadersSample())
+                    .append("\n```\n\n");
+        }
+
+        // Sample Response
+        if (endpoint.getResponseSample() != null) {
+            md.append("**Sample Response:**\n```json\n")
+                    .append(endpoint.getResponseSample())
+                    .append("\n```\n\n");
+        }
+
+        // Parameters
+        if (endpoint.getParameters() != null && !endpoint.getParameters().isEmpty()) {
+            md.append("**Parameters:**\n\n")
+                    .append("| Name | Type | Location | Required | Description |\n")
+                    .append("|------|------|----------|----------|-------------|\n");
+
+            for (ParamInfo param : endpoint.getParameters()) {
+                md.append("| ")
+                        .append(param.getName()).append(" | ")
+                        .append(param.getType()).append(" | ")
+                        .append(param.getLocation()).append(" | ")
+                        .append(param.isRequired() ? "✓" : "✗").append(" | ")
+                        .append(param.getDescription() != null ? param.getDescription() : "-").append(" |\n");
+            }
+            md.append("\n");
+        }
+
+        writeSchema(md, "Request Schema", endpoint.getRequestBody());
+        writeSchema(md, "Response Schema", endpoint.getResponseBody());
+
+        // cURL Example
+        md.append("**cURL Example:**\n```bash\n")
+                .append(endpoint.getCurlExample())
+                .append("\n```\n\n---\n\n");
+        return md.toString();
+    }
+
+    private void writeSchema(Writer md, String title, BodyInfo body) throws IOException {
+        if (body == null || body.getFields() == null || body.getFields().isEmpty()) {
+            return;
+        }
+        md.append("**").append(title).append(":** (").append(String.valueOf(body.getSampleCount())).append(" samples)\n\n")
+                .append("| Field | Types | Required | Presence | Cardinality |\n")
+                .append("|-------|-------|----------|----------|-------------|\n");
+        for (FieldInfo field : body.getFields()) {
+            md.append("| ")
+                    .append(field.getName()).append(" | ")
+                    .append(String.join(", ", field.getTypes())).append(" | ")
+                    .append(field.isRequired() ? "✓" : "✗").append(" | ")
+                    .append(String.format("%.0f%%", field.getPresenceRatio() * 100)).append(" | ")
+                    .append(String.valueOf(field.getCardinality())).append(field.isCardinalityCapped() ? "+" : "").append(" |\n");
+        }
+        md.append("\n");
+    }
+}
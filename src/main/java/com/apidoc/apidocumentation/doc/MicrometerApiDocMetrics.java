@@ -0,0 +1,168 @@
+package com.apidoc.apidocumentation.doc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.context.ApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+class MicrometerApiDocMetrics implements ApiDocMetrics.Recorder {
+
+    private final Timer capture;
+    private final Timer logSave;
+    private final Counter logBytes;
+    private final Counter logSaveFailures;
+    private final Timer scan;
+    private final Timer generation;
+    private final Counter generationFailures;
+
+    private MicrometerApiDocMetrics(MeterRegistry registry) {
+        this.capture = Timer.builder("apidoc.capture")
+                .description("Time the request thread spends building and handing off an API log")
+                .register(registry);
+        this.logSave = Timer.builder("apidoc.log.save")
+                .description("Time to persist one API log")
+                .register(registry);
+        this.logBytes = Counter.builder("apidoc.log.written")
+                .description("Bytes of API logs written to disk")
+                .baseUnit("bytes")
+                .register(registry);
+        this.logSaveFailures = Counter.builder("apidoc.log.save.failures")
+                .description("API logs that could not be persisted")
+                .register(registry);
+        this.scan = Timer.builder("apidoc.scan")
+                .description("Time to scan controllers and register their endpoints")
+                .register(registry);
+        this.generation = Timer.builder("apidoc.doc.generation")
+                .description("Time to build and publish the complete documentation")
+                .register(registry);
+        this.generationFailures = Counter.builder("apidoc.doc.generation.failures")
+                .description("Documentation generations that failed")
+                .register(registry);
+    }
+
+    static ApiDocMetrics.Recorder create(ApplicationContext context) {
+        MeterRegistry registry = context.getBeanProvider(MeterRegistry.class).getIfUnique();
+        if (registry == null) {
+            return null;
+        }
+
+        // Gauges read state the components already keep, so nothing extra is tracked per request
+        Gauge.builder("apidoc.endpoints.registered", context.getBean(ApiDocumentationService.class),
+                        service -> service.getAllEndpoints().size())
+                .description("Endpoints currently in the documentation registry")
+                .register(registry);
+        ApiLogDispatcher dispatcher = context.getBean(ApiLogDispatcher.class);
+        Gauge.builder("apidoc.log.queue.size", dispatcher, ApiLogDispatcher::getQueueSize)
+                .description("API logs waiting for the background writer")
+                .register(registry);
+        FunctionCounter.builder("apidoc.log.dropped", dispatcher, ApiLogDispatcher::getDroppedLogs)
+                .description("API logs dropped because the writer queue was full")
+                .register(registry);
+        DocumentationFragmentCache fragmentCache = context.getBean(DocumentationFragmentCache.class);
+        FunctionCounter.builder("apidoc.doc.fragments", fragmentCache, DocumentationFragmentCache::getHits)
+                .description("Rendered endpoint fragment lookups, by cache result")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("apidoc.doc.fragments", fragmentCache, DocumentationFragmentCache::getMisses)
+                .description("Rendered endpoint fragment lookups, by cache result")
+                .tag("result", "miss")
+                .register(registry);
+
+        CaptureGovernor governor = context.getBean(CaptureGovernor.class);
+        Gauge.builder("apidoc.capture.level", governor, g -> g.getLevel().ordinal())
+                .description("Current capture level: 0 full, 1 truncated, 2 headers only, 3 counters only")
+                .register(registry);
+        FunctionCounter.builder("apidoc.capture.counted.only", governor, CaptureGovernor::getCountedOnly)
+                .description("Requests only counted because capture was degraded to counters only")
+                .register(registry);
+
+        CaptureBufferPool bufferPool = context.getBean(CaptureBufferPool.class);
+        FunctionCounter.builder("apidoc.capture.buffers", bufferPool, CaptureBufferPool::getReused)
+                .description("Capture buffers handed out, by whether they came from the pool")
+                .tag("source", "pool")
+                .register(registry);
+        FunctionCounter.builder("apidoc.capture.buffers", bufferPool, CaptureBufferPool::getAllocated)
+                .description("Capture buffers handed out, by whether they came from the pool")
+                .tag("source", "allocated")
+                .register(registry);
+        ApiLogTailService tailService = context.getBean(ApiLogTailService.class);
+        Gauge.builder("apidoc.logs.stream.subscribers", tailService, ApiLogTailService::getSubscriberCount)
+                .description("Clients connected to the live log stream")
+                .register(registry);
+        FunctionCounter.builder("apidoc.logs.stream.dropped", tailService, ApiLogTailService::getDroppedLogs)
+                .description("Logs dropped from a live stream subscriber's buffer because it fell behind")
+                .register(registry);
+        Gauge.builder("apidoc.summary.rows", context.getBean(RequestSummaryStore.class), RequestSummaryStore::getRowCount)
+                .description("Requests held in the columnar summary store")
+                .register(registry);
+        LogRetentionCompactor retention = context.getBean(LogRetentionCompactor.class);
+        FunctionCounter.builder("apidoc.retention.compacted", retention, LogRetentionCompactor::getCompactedLogs)
+                .description("Logs folded into daily statistics after their full-payload period")
+                .register(registry);
+        FunctionCounter.builder("apidoc.retention.deleted", retention, LogRetentionCompactor::getDeletedLogs)
+                .description("Log files removed by retention compaction")
+                .register(registry);
+        Gauge.builder("apidoc.retention.samples", retention, LogRetentionCompactor::getSampleCount)
+                .description("Logs kept as the sample for an endpoint and status class")
+                .register(registry);
+        LogStoreCheckpoint checkpoint = context.getBean(LogStoreCheckpoint.class);
+        FunctionCounter.builder("apidoc.checkpoint.written", checkpoint, LogStoreCheckpoint::getCheckpointsWritten)
+                .description("Checkpoints of listener state written to the log directory")
+                .register(registry);
+        Gauge.builder("apidoc.checkpoint.size", checkpoint, LogStoreCheckpoint::getLastCheckpointBytes)
+                .description("Size of the last checkpoint written")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("apidoc.tracker.pinned", context.getBean(SlowRequestTracker.class), SlowRequestTracker::getPinnedCount)
+                .description("Logs pinned against retention because the slow request tracker references them")
+                .register(registry);
+        FunctionCounter.builder("apidoc.cluster.merged", context.getBean(ClusterLogMerger.class), ClusterLogMerger::getMergedLogs)
+                .description("Logs written into merged cluster log stores")
+                .register(registry);
+        CaptureSpillStore spillStore = context.getBean(CaptureSpillStore.class);
+        FunctionCounter.builder("apidoc.capture.spilled", spillStore, CaptureSpillStore::getSpilledBodies)
+                .description("Captured bodies that crossed the spill threshold and went to disk")
+                .register(registry);
+        FunctionCounter.builder("apidoc.capture.spilled.bytes", spillStore, CaptureSpillStore::getSpilledBytes)
+                .description("Bytes of captured bodies written to spill files")
+                .baseUnit("bytes")
+                .register(registry);
+
+        return new MicrometerApiDocMetrics(registry);
+    }
+
+    @Override
+    public void recordCapture(long nanos) {
+        capture.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordLogSaved(long nanos, long bytes) {
+        logSave.record(nanos, TimeUnit.NANOSECONDS);
+        logBytes.increment(bytes);
+    }
+
+    @Override
+    public void recordLogSaveFailure() {
+        logSaveFailures.increment();
+    }
+
+    @Override
+    public void recordScan(long nanos) {
+        scan.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordGeneration(long nanos) {
+        generation.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void recordGenerationFailure() {
+        generationFailures.increment();
+    }
+}
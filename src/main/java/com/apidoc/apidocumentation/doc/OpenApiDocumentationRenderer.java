@@ -0,0 +1,322 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.*;
+
+@Component
+public class OpenApiDocumentationRenderer implements DocumentationRenderer {
+
+    static final String FILE_NAME = "openapi.json";
+    static final String TAG_FILE_PREFIX = "openapi-tag-";
+    private static final String SCHEMA_REF_PREFIX = "#/components/schemas/";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Additionally writes one self-contained spec per tag next to the full one
+    @Value("${apidoc.doc.openapi.split-by-tag:false}")
+    private boolean splitByTag;
+
+    @Override
+    public String getFormat() {
+        return "openapi";
+    }
+
+    @Override
+    public void render(DocumentationModel model, DocumentationOutput output) throws IOException {
+        output.writeBinary(FILE_NAME, out -> writeSpec(out, model, model.getEndpoints()));
+
+        if (splitByTag) {
+            Set<String> usedSlugs = new HashSet<>();
+            for (Map.Entry<String, List<EndpointModel>> group : model.getEndpointsByTag().entrySet()) {
+                String slug = HtmlDocumentationRenderer.slug(group.getKey());
+                for (int i = 2; !usedSlugs.add(slug); i++) {
+                    slug = HtmlDocumentationRenderer.slug(group.getKey()) + "-" + i;
+                }
+                output.writeBinary(TAG_FILE_PREFIX + slug + ".json", out -> writeSpec(out, model, group.getValue()));
+            }
+        }
+    }
+
+    // Operations stream straight to the output; only the deduplicated component schemas are held until the end
+    private void writeSpec(OutputStream out, DocumentationModel model, List<EndpointModel> endpoints) throws IOException {
+        Components components = new Components();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartObject();
+            gen.writeStringField("openapi", "3.1.0");
+
+            gen.writeObjectFieldStart("info");
+            gen.writeStringField("title", model.getApplicationName());
+            gen.writeStringField("version", model.getVersion());
+            gen.writeStringField("description", model.getDescription());
+            gen.writeEndObject();
+
+            gen.writeArrayFieldStart("servers");
+            gen.writeStartObject();
+            gen.writeStringField("url", model.getBaseUrl());
+            gen.writeEndObject();
+            gen.writeEndArray();
+
+            // Endpoints are sorted by path, so each path item is complete once the path changes
+            gen.writeObjectFieldStart("paths");
+            String currentPath = null;
+            Set<String> writtenMethods = new HashSet<>();
+            for (EndpointModel endpoint : endpoints) {
+                if (!endpoint.getPath().equals(currentPath)) {
+                    if (currentPath != null) {
+                        gen.writeEndObject();
+                    }
+                    currentPath = endpoint.getPath();
+                    writtenMethods.clear();
+                    gen.writeObjectFieldStart(currentPath);
+                }
+                if (writtenMethods.add(endpoint.getMethod())) {
+                    writeOperation(gen, endpoint, components);
+                }
+            }
+            if (currentPath != null) {
+                gen.writeEndObject();
+            }
+            gen.writeEndObject();
+
+            gen.writeObjectFieldStart("components");
+            gen.writeObjectFieldStart("schemas");
+            for (Map.Entry<String, ObjectNode> schema : components.schemas.entrySet()) {
+                gen.writeFieldName(schema.getKey());
+                gen.writeTree(schema.getValue());
+            }
+            gen.writeEndObject();
+            gen.writeEndObject();
+
+            gen.writeEndObject();
+        }
+    }
+
+    private void writeOperation(JsonGenerator gen, EndpointModel endpoint, Components components) throws IOException {
+        String operationId = operationId(endpoint);
+        String schemaName = pascalCase(operationId);
+        gen.writeObjectFieldStart(endpoint.getMethod().toLowerCase());
+        gen.writeStringField("operationId", operationId);
+        if (endpoint.getDescription() != null && !endpoint.getDescription().isEmpty()) {
+            gen.writeStringField("summary", endpoint.getDescription());
+        }
+        if (endpoint.getTags() != null && !endpoint.getTags().isEmpty()) {
+            gen.writeArrayFieldStart("tags");
+            for (String tag : endpoint.getTags()) {
+                gen.writeString(tag);
+            }
+            gen.writeEndArray();
+        }
+
+        boolean hasParameters = endpoint.getParameters() != null && !endpoint.getParameters().isEmpty();
+        boolean hasHeaders = endpoint.getHeaders() != null && !endpoint.getHeaders().isEmpty();
+        if (hasParameters || hasHeaders) {
+            gen.writeArrayFieldStart("parameters");
+            if (hasParameters) {
+                for (ParamInfo param : endpoint.getParameters()) {
+                    writeParameter(gen, param);
+                }
+            }
+            if (hasHeaders) {
+                for (HeaderInfo header : endpoint.getHeaders()) {
+                    gen.writeStartObject();
+                    gen.writeStringField("name", header.getName());
+                    gen.writeStringField("in", "header");
+                    gen.writeBooleanField("required", header.isRequired());
+                    if (header.getDescription() != null && !header.getDescription().isEmpty()) {
+                        gen.writeStringField("description", header.getDescription());
+                    }
+                    gen.writeObjectFieldStart("schema");
+                    gen.writeStringField("type", "string");
+                    gen.writeEndObject();
+                    gen.writeEndObject();
+                }
+            }
+            gen.writeEndArray();
+        }
+
+        // Captured GET "bodies" are the serialized parameter map, already covered by the parameters above
+        if (!"GET".equalsIgnoreCase(endpoint.getMethod())
+                && (endpoint.getRequestBody() != null || endpoint.getRequestSample() != null)) {
+            gen.writeObjectFieldStart("requestBody");
+            writeContent(gen, endpoint.getRequestBody(), endpoint.getRequestSample(), schemaName + "Request", components);
+            gen.writeEndObject();
+        }
+
+        gen.writeObjectFieldStart("responses");
+        gen.writeObjectFieldStart("200");
+        gen.writeStringField("description", "Successful response");
+        if (endpoint.getResponseBody() != null || endpoint.getResponseSample() != null) {
+            writeContent(gen, endpoint.getResponseBody(), endpoint.getResponseSample(), schemaName + "Response", components);
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+
+    private void writeParameter(JsonGenerator gen, ParamInfo param) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("name", param.getName());
+        gen.writeStringField("in", param.getLocation());
+        // OpenAPI requires path parameters to be marked required
+        gen.writeBooleanField("required", param.isRequired() || "path".equals(param.getLocation()));
+        if (param.getDescription() != null && !param.getDescription().isEmpty()) {
+            gen.writeStringField("description", param.getDescription());
+        }
+        gen.writeFieldName("schema");
+        gen.writeTree(parameterSchema(param.getType()));
+        if (param.getExample() != null) {
+            gen.writeStringField("example", param.getExample());
+        }
+        gen.writeEndObject();
+    }
+
+    private void writeContent(JsonGenerator gen, BodyInfo body, String sample, String schemaName,
+                              Components components) throws IOException {
+        gen.writeObjectFieldStart("content");
+        gen.writeObjectFieldStart(body != null && body.getContentType() != null ? body.getContentType() : "application/json");
+        if (body != null && body.getSchema() != null) {
+            gen.writeFieldName("schema");
+            gen.writeTree(bodySchema(body, schemaName, components));
+        }
+        if (sample != null) {
+            gen.writeFieldName("example");
+            gen.writeTree(parseSample(sample));
+        }
+        gen.writeEndObject();
+        gen.writeEndObject();
+    }
+
+    private JsonNode parseSample(String sample) {
+        try {
+            return objectMapper.readTree(sample);
+        } catch (JsonProcessingException e) {
+            return objectMapper.getNodeFactory().textNode(sample);
+        }
+    }
+
+    // Rebuilds a nested schema from the learner's flattened field paths ("a.b", "items[]")
+    private JsonNode bodySchema(BodyInfo body, String name, Components components) {
+        Map<String, FieldInfo> fields = new HashMap<>();
+        Map<String, List<String>> properties = new HashMap<>();
+        if (body.getFields() != null) {
+            for (FieldInfo field : body.getFields()) {
+                fields.put(field.getName(), field);
+                if (!field.getName().endsWith("[]")) {
+                    int dot = field.getName().lastIndexOf('.');
+                    String parent = dot > 0 ? field.getName().substring(0, dot) : BodyShape.ROOT;
+                    properties.computeIfAbsent(parent, p -> new ArrayList<>()).add(field.getName());
+                }
+            }
+        }
+        List<String> rootTypes = Arrays.asList(body.getSchema().split("\\|"));
+        return schemaFor(BodyShape.ROOT, rootTypes, fields, properties, name, components);
+    }
+
+    private JsonNode schemaFor(String path, List<String> types, Map<String, FieldInfo> fields,
+                               Map<String, List<String>> properties, String name, Components components) {
+        ObjectNode schema = objectMapper.createObjectNode();
+        if (types.size() == 1) {
+            schema.put("type", types.get(0));
+        } else {
+            ArrayNode typeList = schema.putArray("type");
+            types.forEach(typeList::add);
+        }
+
+        if (types.contains("object")) {
+            List<String> children = new ArrayList<>(properties.getOrDefault(path, Collections.emptyList()));
+            Collections.sort(children);
+            if (!children.isEmpty()) {
+                ObjectNode props = schema.putObject("properties");
+                List<String> required = new ArrayList<>();
+                for (String child : children) {
+                    String property = child.substring(BodyShape.ROOT.equals(path) ? 0 : path.length() + 1);
+                    FieldInfo field = fields.get(child);
+                    props.set(property, schemaFor(child, field.getTypes(), fields, properties,
+                            name + pascalCase(property), components));
+                    // Presence inside array elements is counted per sample, so it cannot prove a field is required
+                    if (field.isRequired() && !child.contains("[]")) {
+                        required.add(property);
+                    }
+                }
+                if (!required.isEmpty()) {
+                    ArrayNode requiredList = schema.putArray("required");
+                    required.forEach(requiredList::add);
+                }
+            }
+        }
+
+        if (types.contains("array")) {
+            String itemPath = path + "[]";
+            FieldInfo items = fields.get(itemPath);
+            if (items != null) {
+                schema.set("items", schemaFor(itemPath, items.getTypes(), fields, properties, name + "Item", components));
+            }
+        }
+
+        return schema.has("properties") ? components.register(name, schema) : schema;
+    }
+
+    private JsonNode parameterSchema(String javaType) {
+        ObjectNode schema = objectMapper.createObjectNode();
+        switch (javaType == null ? "" : javaType) {
+            case "int", "Integer", "short", "Short", "byte", "Byte" -> schema.put("type", "integer").put("format", "int32");
+            case "long", "Long", "BigInteger" -> schema.put("type", "integer").put("format", "int64");
+            case "double", "Double", "float", "Float", "BigDecimal" -> schema.put("type", "number");
+            case "boolean", "Boolean" -> schema.put("type", "boolean");
+            case "UUID" -> schema.put("type", "string").put("format", "uuid");
+            case "LocalDate" -> schema.put("type", "string").put("format", "date");
+            case "LocalDateTime", "OffsetDateTime", "ZonedDateTime", "Instant" -> schema.put("type", "string").put("format", "date-time");
+            case "List", "Set", "Collection", "String[]" -> schema.put("type", "array").putObject("items").put("type", "string");
+            default -> schema.put("type", "string");
+        }
+        return schema;
+    }
+
+    private static String operationId(EndpointModel endpoint) {
+        return endpoint.getMethod().toLowerCase() + pascalCase(endpoint.getPath());
+    }
+
+    private static String pascalCase(String value) {
+        StringBuilder result = new StringBuilder();
+        for (String part : value.split("[^A-Za-z0-9]+")) {
+            if (!part.isEmpty()) {
+                result.append(Character.toUpperCase(part.charAt(0))).append(part.substring(1));
+            }
+        }
+        return result.toString();
+    }
+
+    // Structurally identical object schemas are emitted once and referenced everywhere else
+    private static class Components {
+        private final Map<String, String> namesByCanonicalForm = new HashMap<>();
+        private final Map<String, ObjectNode> schemas = new TreeMap<>();
+
+        JsonNode register(String name, ObjectNode schema) {
+            String canonical = schema.toString();
+            String existing = namesByCanonicalForm.get(canonical);
+            if (existing == null) {
+                existing = name;
+                for (int i = 2; schemas.containsKey(existing); i++) {
+                    existing = name + i;
+                }
+                namesByCanonicalForm.put(canonical, existing);
+                schemas.put(existing, schema);
+            }
+            ObjectNode ref = schema.objectNode();
+            ref.put("$ref", SCHEMA_REF_PREFIX + existing);
+            return ref;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+// Where one request's time went, in nanoseconds; the phases add up to totalNanos
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PhaseTimings {
+
+    static final List<String> PHASES = List.of(
+            "dispatch", "bodyRead", "handler", "serialization", "capture", "responseWrite", "total");
+
+    // Filter entry to preHandle: other filters, handler mapping and interceptors
+    private long dispatchNanos;
+    // Reading and deserializing the request body, zero when the handler takes none
+    private long bodyReadNanos;
+    private long handlerNanos;
+    // Handler return to afterCompletion, mostly response serialization
+    private long serializationNanos;
+    // Building the API log on the request thread
+    private long captureNanos;
+    // Capture end until the response completes; the body already streamed out during serialization
+    private long responseWriteNanos;
+    private long totalNanos;
+
+    long[] toArray() {
+        return new long[]{dispatchNanos, bodyReadNanos, handlerNanos, serializationNanos,
+                captureNanos, responseWriteNanos, totalNanos};
+    }
+}
@@ -0,0 +1,89 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+
+@Component
+public class PostmanCollectionRenderer implements DocumentationRenderer {
+
+    static final String FILE_NAME = "postman-collection.json";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final DocumentationFragmentCache fragmentCache;
+
+    public PostmanCollectionRenderer(DocumentationFragmentCache fragmentCache) {
+        this.fragmentCache = fragmentCache;
+    }
+
+    @Override
+    public String getFormat() {
+        return "postman";
+    }
+
+    @Override
+    public void render(DocumentationModel model, DocumentationOutput output) throws IOException {
+        output.writeBinary(FILE_NAME, out -> writeCollection(out, model));
+    }
+
+    private void writeCollection(OutputStream out, DocumentationModel model) throws IOException {
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(out)) {
+            gen.useDefaultPrettyPrinter();
+            gen.writeStartObject();
+
+            gen.writeObjectFieldStart("info");
+            gen.writeStringField("name", model.getApplicationName() + " API");
+            gen.writeStringField("description", model.getDescription());
+            gen.writeStringField("schema", "https://schema.getpostman.com/json/collection/v2.1.0/collection.json");
+            gen.writeEndObject();
+
+            gen.writeArrayFieldStart("item");
+            for (EndpointModel endpoint : model.getEndpoints()) {
+                gen.writeRawValue(fragmentCache.get(getFormat(), endpoint, e -> renderItem(model, e)));
+            }
+            gen.writeEndArray();
+
+            gen.writeEndObject();
+        }
+    }
+
+    private String renderItem(DocumentationModel model, EndpointModel endpoint) throws IOException {
+        StringWriter item = new StringWriter();
+        try (JsonGenerator gen = objectMapper.getFactory().createGenerator(item)) {
+            gen.useDefaultPrettyPrinter();
+            writeItem(gen, model, endpoint);
+        }
+        return item.toString();
+    }
+
+    private void writeItem(JsonGenerator gen, DocumentationModel model, EndpointModel endpoint) throws IOException {
+        gen.writeStartObject();
+        gen.writeStringField("name", endpoint.getMethod() + " " + endpoint.getPath());
+
+        gen.writeObjectFieldStart("request");
+        gen.writeStringField("method", endpoint.getMethod());
+
+        gen.writeObjectFieldStart("url");
+        gen.writeStringField("raw", endpoint.getFullUrl());
+        gen.writeStringField("protocol", model.getProtocol());
+        gen.writeArrayFieldStart("host");
+        gen.writeString(model.getHost());
+        gen.writeEndArray();
+        gen.writeStringField("port", model.getPort());
+        gen.writeArrayFieldStart("path");
+        for (String segment : endpoint.getUrlPathSegments()) {
+            gen.writeString(segment);
+        }
+        gen.writeEndArray();
+        gen.writeEndObject();
+
+        gen.writeStringField("description", endpoint.getDescription());
+        gen.writeEndObject();
+
+        gen.writeEndObject();
+    }
+}
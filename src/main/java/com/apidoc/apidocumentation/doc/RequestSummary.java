@@ -0,0 +1,17 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+@Value
+@Builder
+public class RequestSummary {
+    String groupBy;
+    long rowsStored;
+    long rowsMatched;
+    int chunksScanned;
+    double tookMillis;
+    List<RequestSummaryGroup> groups;
+}
@@ -0,0 +1,19 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.Builder;
+import lombok.Value;
+
+// Latency percentiles come from a log-linear histogram and are within about 3% of the exact value
+@Value
+@Builder
+public class RequestSummaryGroup {
+    String key;
+    long count;
+    long serverErrors;
+    double errorRate;
+    double avgMs;
+    double p50Ms;
+    double p90Ms;
+    double p99Ms;
+    double maxMs;
+}
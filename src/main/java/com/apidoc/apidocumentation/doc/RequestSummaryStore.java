@@ -0,0 +1,637 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Five fields per request in primitive column chunks, so analytics never deserialize full logs
+@Service
+public class RequestSummaryStore implements CheckpointedListener {
+
+    static final int CHUNK_ROWS = 1 << 16;
+    static final String DIRECTORY = "summary";
+    private static final String DICTIONARY_FILE = "endpoints.dict";
+    private static final int MAGIC = 0x41505343;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 4 + 8 + 8;
+    private static final int ROW_BYTES = 8 + 4 + 1 + 2 + 4;
+    private static final String[] METHODS = {"GET", "POST", "PUT", "DELETE", "PATCH", "HEAD", "OPTIONS", "TRACE", "OTHER"};
+    private static final int STATUS_KEYS = 1000;
+    // Latencies are microseconds, bucketed by power of two with 16 linear sub-buckets
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int BUCKETS = 32 << SUB_BUCKET_BITS;
+
+    @Value("${apidoc.summary.enabled:true}")
+    private boolean enabled;
+
+    // Chunks live on the heap at 19 bytes per row, about 20 MB at the default; the oldest is dropped beyond this
+    @Value("${apidoc.summary.max-rows:1048576}")
+    private long maxRows;
+
+    @Value("${apidoc.log.directory:api-logs}")
+    private String logDirectory;
+
+    private Path directory;
+    // Written only by the writer thread; readers take the current array as a snapshot
+    private final Map<String, Integer> endpointIds = new HashMap<>();
+    private volatile String[] endpointNames = new String[0];
+    private volatile Chunk[] chunks = new Chunk[0];
+    private long nextSequence;
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        directory = Paths.get(logDirectory, DIRECTORY);
+        try {
+            Files.createDirectories(directory);
+            loadDictionary();
+            loadChunks();
+        } catch (IOException e) {
+            System.err.println("Failed to load request summaries: " + e.getMessage());
+        }
+    }
+
+    // Full chunks are written as they fill up, the partly filled one at every checkpoint and at shutdown
+    @PreDestroy
+    public synchronized void flush() {
+        Chunk active = activeChunk();
+        if (enabled && active != null && active.size > 0) {
+            persist(active);
+        }
+    }
+
+    @Override
+    public String checkpointName() {
+        return "summary";
+    }
+
+    // The active chunk is written first, so every row counted here is on disk when the checkpoint is
+    @Override
+    public synchronized JsonNode checkpointState(ObjectMapper objectMapper) {
+        flush();
+        ArrayNode state = objectMapper.createArrayNode();
+        for (Chunk chunk : chunks) {
+            state.addArray().add(chunk.sequence).add(chunk.size);
+        }
+        return state;
+    }
+
+    // Rows written to the chunk files after the checkpoint belong to logs that are about to be replayed, so they
+    // are cut off here rather than counted twice
+    @Override
+    public synchronized void restoreCheckpoint(JsonNode state, ObjectMapper objectMapper) throws IOException {
+        if (!enabled) {
+            return;
+        }
+        if (state == null) {
+            clear();
+            return;
+        }
+        Map<Long, Integer> recorded = new HashMap<>();
+        long lastRecorded = -1;
+        for (JsonNode entry : state) {
+            recorded.put(entry.get(0).asLong(), entry.get(1).asInt());
+            lastRecorded = Math.max(lastRecorded, entry.get(0).asLong());
+        }
+        List<Chunk> kept = new ArrayList<>();
+        for (Chunk chunk : chunks) {
+            Integer rows = recorded.get(chunk.sequence);
+            if (rows == null && chunk.sequence > lastRecorded) {
+                deleteChunkFile(chunk.sequence);
+            } else {
+                if (rows != null && rows < chunk.size) {
+                    chunk.truncate(rows);
+                }
+                kept.add(chunk);
+            }
+        }
+        chunks = kept.toArray(new Chunk[0]);
+        nextSequence = lastRecorded + 1;
+        for (Chunk chunk : kept) {
+            nextSequence = Math.max(nextSequence, chunk.sequence + 1);
+        }
+    }
+
+    // Also called for logs replayed in parallel at startup, so appends are serialized
+    @Override
+    public synchronized void onLog(ApiLog log) {
+        if (!enabled) {
+            return;
+        }
+        Chunk chunk = activeChunk();
+        if (chunk == null || chunk.size == CHUNK_ROWS) {
+            if (chunk != null) {
+                persist(chunk);
+            }
+            chunk = addChunk(new Chunk(nextSequence++));
+        }
+        chunk.append(timestampOf(log), endpointId(log.getEndpoint()), methodCode(log.getMethod()),
+                log.getStatusCode() != null ? log.getStatusCode().shortValue() : 0, latencyMicros(log));
+    }
+
+    public long getRowCount() {
+        long rows = 0;
+        for (Chunk chunk : chunks) {
+            rows += chunk.size;
+        }
+        return rows;
+    }
+
+    public RequestSummary summarize(String groupBy, LocalDateTime from, LocalDateTime to,
+                                    String endpoint, String method, String status) {
+        long start = System.nanoTime();
+        Dimension dimension = Dimension.parse(groupBy);
+        String[] names = endpointNames;
+        Chunk[] snapshot = chunks;
+        Query query = new Query(
+                from != null ? from.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MIN_VALUE,
+                to != null ? to.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : Long.MAX_VALUE,
+                endpointFilter(endpoint),
+                method != null && !method.isBlank() ? methodCode(method.trim()) : -1,
+                StatusRange.parse(status));
+        int keys = switch (dimension) {
+            case ENDPOINT -> names.length;
+            case METHOD -> METHODS.length;
+            case STATUS -> STATUS_KEYS;
+            case NONE -> 1;
+        };
+
+        // Chunks are independent, so they are scanned in parallel, one aggregate per split rather than per chunk
+        Aggregation total = query.endpoint == Query.UNKNOWN ? null : Arrays.stream(snapshot).parallel()
+                .collect(() -> new Aggregation(keys),
+                        (aggregation, chunk) -> scan(chunk, query, dimension, aggregation),
+                        Aggregation::merge);
+
+        List<RequestSummaryGroup> groups = new ArrayList<>();
+        long matched = 0;
+        if (total != null) {
+            for (int key = 0; key < keys; key++) {
+                if (total.counts[key] > 0) {
+                    matched += total.counts[key];
+                    groups.add(total.toGroup(key, dimension.label(key, names)));
+                }
+            }
+            groups.sort(Comparator.comparingLong(RequestSummaryGroup::getCount).reversed());
+        }
+        long rows = 0;
+        for (Chunk chunk : snapshot) {
+            rows += chunk.size;
+        }
+        return RequestSummary.builder()
+                .groupBy(dimension.name().toLowerCase())
+                .rowsStored(rows)
+                .rowsMatched(matched)
+                .chunksScanned(total != null ? total.chunks : 0)
+                .tookMillis((System.nanoTime() - start) / 1_000_000.0)
+                .groups(groups)
+                .build();
+    }
+
+    // Plain counted loops over primitive arrays; the time check is dropped when the whole chunk is in range
+    private static void scan(Chunk chunk, Query query, Dimension dimension, Aggregation aggregation) {
+        int size = chunk.size;
+        if (size == 0 || chunk.maxTimestamp < query.from || chunk.minTimestamp > query.to) {
+            return;
+        }
+        aggregation.chunks++;
+        int keys = aggregation.counts.length;
+        boolean checkTime = chunk.minTimestamp < query.from || chunk.maxTimestamp > query.to;
+        long[] timestamps = chunk.timestamps;
+        int[] endpoints = chunk.endpoints;
+        byte[] methods = chunk.methods;
+        short[] statuses = chunk.statuses;
+        int[] latencies = chunk.latencies;
+        int endpointFilter = query.endpoint;
+        int methodFilter = query.method;
+        int statusFrom = query.status.from;
+        int statusTo = query.status.to;
+
+        for (int i = 0; i < size; i++) {
+            if (checkTime && (timestamps[i] < query.from || timestamps[i] > query.to)) {
+                continue;
+            }
+            if ((endpointFilter >= 0 && endpoints[i] != endpointFilter) || (methodFilter >= 0 && methods[i] != methodFilter)) {
+                continue;
+            }
+            int statusCode = statuses[i];
+            if (statusCode < statusFrom || statusCode > statusTo) {
+                continue;
+            }
+            int key = switch (dimension) {
+                case ENDPOINT -> endpoints[i];
+                case METHOD -> methods[i];
+                case STATUS -> statusCode;
+                case NONE -> 0;
+            };
+            // Endpoints registered after the name snapshot was taken are left out of this query
+            if (key >= 0 && key < keys) {
+                aggregation.add(key, latencies[i], statusCode >= 500);
+            }
+        }
+    }
+
+    // Every log is about to be replayed, so stored rows and the endpoint dictionary start over with it
+    private void clear() throws IOException {
+        Files.createDirectories(directory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+        chunks = new Chunk[0];
+        endpointIds.clear();
+        endpointNames = new String[0];
+        nextSequence = 0;
+    }
+
+    private Chunk activeChunk() {
+        Chunk[] current = chunks;
+        return current.length == 0 ? null : current[current.length - 1];
+    }
+
+    private Chunk addChunk(Chunk chunk) {
+        Chunk[] current = chunks;
+        int maxChunks = (int) Math.max(1, (maxRows + CHUNK_ROWS - 1) / CHUNK_ROWS);
+        int dropped = Math.max(0, current.length + 1 - maxChunks);
+        Chunk[] next = new Chunk[current.length + 1 - dropped];
+        System.arraycopy(current, dropped, next, 0, current.length - dropped);
+        next[next.length - 1] = chunk;
+        chunks = next;
+        for (int i = 0; i < dropped; i++) {
+            deleteChunkFile(current[i].sequence);
+        }
+        return chunk;
+    }
+
+    private int endpointId(String endpoint) {
+        String name = endpoint != null ? endpoint : "";
+        Integer id = endpointIds.get(name);
+        if (id != null) {
+            return id;
+        }
+        String[] current = endpointNames;
+        String[] next = Arrays.copyOf(current, current.length + 1);
+        next[current.length] = name;
+        endpointIds.put(name, current.length);
+        endpointNames = next;
+        try {
+            Files.writeString(directory.resolve(DICTIONARY_FILE), name + "\n", StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            System.err.println("Failed to record summary endpoint: " + e.getMessage());
+        }
+        return current.length;
+    }
+
+    private int endpointFilter(String endpoint) {
+        if (endpoint == null || endpoint.isBlank()) {
+            return -1;
+        }
+        String[] names = endpointNames;
+        for (int id = 0; id < names.length; id++) {
+            if (names[id].equals(endpoint.trim())) {
+                return id;
+            }
+        }
+        return Query.UNKNOWN;
+    }
+
+    private static byte methodCode(String method) {
+        for (int i = 0; i < METHODS.length - 1; i++) {
+            if (METHODS[i].equalsIgnoreCase(method)) {
+                return (byte) i;
+            }
+        }
+        return (byte) (METHODS.length - 1);
+    }
+
+    private static long timestampOf(ApiLog log) {
+        if (log.getCapturedAt() != 0) {
+            return log.getCapturedAt();
+        }
+        return log.getTimestamp() != null
+                ? log.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+
+    // Measured request time when available, otherwise the millisecond execution time
+    static int latencyMicros(ApiLog log) {
+        long micros = log.getTimings() != null && log.getTimings().getTotalNanos() > 0
+                ? log.getTimings().getTotalNanos() / 1_000
+                : (log.getExecutionTime() != null ? log.getExecutionTime() * 1_000 : 0);
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(0, micros));
+    }
+
+    static int bucket(int micros) {
+        if (micros < (1 << SUB_BUCKET_BITS)) {
+            return Math.max(0, micros);
+        }
+        int exponent = 31 - Integer.numberOfLeadingZeros(micros);
+        int subBucket = (micros >>> (exponent - SUB_BUCKET_BITS)) & ((1 << SUB_BUCKET_BITS) - 1);
+        return ((exponent - SUB_BUCKET_BITS + 1) << SUB_BUCKET_BITS) + subBucket;
+    }
+
+    // Midpoint of a bucket, in microseconds
+    static double bucketMidpoint(int bucket) {
+        if (bucket < (1 << SUB_BUCKET_BITS)) {
+            return bucket;
+        }
+        int exponent = (bucket >>> SUB_BUCKET_BITS) + SUB_BUCKET_BITS - 1;
+        long subBucket = bucket & ((1 << SUB_BUCKET_BITS) - 1);
+        long lower = (1L << SUB_BUCKET_BITS | subBucket) << (exponent - SUB_BUCKET_BITS);
+        return lower + (1L << (exponent - SUB_BUCKET_BITS)) / 2.0;
+    }
+
+    private void persist(Chunk chunk) {
+        int rows = chunk.size;
+        if (rows == chunk.persistedRows) {
+            return;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER_BYTES + rows * ROW_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(rows).putLong(chunk.minTimestamp).putLong(chunk.maxTimestamp);
+        int position = HEADER_BYTES;
+        buffer.asLongBuffer().put(chunk.timestamps, 0, rows);
+        position += rows * 8;
+        buffer.position(position);
+        buffer.asIntBuffer().put(chunk.endpoints, 0, rows);
+        position += rows * 4;
+        buffer.position(position);
+        buffer.put(chunk.methods, 0, rows);
+        position += rows;
+        buffer.asShortBuffer().put(chunk.statuses, 0, rows);
+        position += rows * 2;
+        buffer.position(position);
+        buffer.asIntBuffer().put(chunk.latencies, 0, rows);
+        try {
+            AtomicFiles.write(chunkFile(chunk.sequence), out -> out.write(buffer.array()));
+            chunk.persistedRows = rows;
+        } catch (IOException e) {
+            System.err.println("Failed to write request summary chunk: " + e.getMessage());
+        }
+    }
+
+    // Chunk files are read whole and bulk-copied into heap column arrays
+    private void loadChunks() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "chunk-*.col")) {
+            stream.forEach(files::add);
+        }
+        files.sort(Comparator.naturalOrder());
+        for (Path file : files) {
+            long sequence = Long.parseLong(file.getFileName().toString().replaceAll("\\D", ""));
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            Chunk chunk = readChunk(sequence, ByteBuffer.wrap(Files.readAllBytes(file)).order(ByteOrder.LITTLE_ENDIAN));
+            if (chunk != null) {
+                addChunk(chunk);
+            } else {
+                System.err.println("Skipping unreadable request summary chunk: " + file);
+            }
+        }
+    }
+
+    private static Chunk readChunk(long sequence, ByteBuffer buffer) {
+        if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+            return null;
+        }
+        int rows = buffer.getInt();
+        if (rows < 0 || rows > CHUNK_ROWS || buffer.capacity() < HEADER_BYTES + (long) rows * ROW_BYTES) {
+            return null;
+        }
+        Chunk chunk = new Chunk(sequence);
+        chunk.minTimestamp = buffer.getLong();
+        chunk.maxTimestamp = buffer.getLong();
+        int position = HEADER_BYTES;
+        buffer.asLongBuffer().get(chunk.timestamps, 0, rows);
+        position += rows * 8;
+        buffer.position(position);
+        buffer.asIntBuffer().get(chunk.endpoints, 0, rows);
+        position += rows * 4;
+        buffer.position(position);
+        buffer.get(chunk.methods, 0, rows);
+        position += rows;
+        buffer.asShortBuffer().get(chunk.statuses, 0, rows);
+        position += rows * 2;
+        buffer.position(position);
+        buffer.asIntBuffer().get(chunk.latencies, 0, rows);
+        chunk.size = rows;
+        chunk.persistedRows = rows;
+        return chunk;
+    }
+
+    private void loadDictionary() throws IOException {
+        Path file = directory.resolve(DICTIONARY_FILE);
+        if (!Files.exists(file)) {
+            return;
+        }
+        List<String> names = Files.readAllLines(file, StandardCharsets.UTF_8);
+        for (int id = 0; id < names.size(); id++) {
+            endpointIds.putIfAbsent(names.get(id), id);
+        }
+        endpointNames = names.toArray(new String[0]);
+    }
+
+    private Path chunkFile(long sequence) {
+        return directory.resolve(String.format("chunk-%010d.col", sequence));
+    }
+
+    private void deleteChunkFile(long sequence) {
+        try {
+            Files.deleteIfExists(chunkFile(sequence));
+        } catch (IOException e) {
+            System.err.println("Failed to delete request summary chunk: " + e.getMessage());
+        }
+    }
+
+    private enum Dimension {
+        ENDPOINT, METHOD, STATUS, NONE;
+
+        static Dimension parse(String groupBy) {
+            if (groupBy == null || groupBy.isBlank()) {
+                return ENDPOINT;
+            }
+            for (Dimension dimension : values()) {
+                if (dimension.name().equalsIgnoreCase(groupBy.trim())) {
+                    return dimension;
+                }
+            }
+            throw new IllegalArgumentException("groupBy must be one of endpoint, method, status, none");
+        }
+
+        String label(int key, String[] endpointNames) {
+            return switch (this) {
+                case ENDPOINT -> endpointNames[key];
+                case METHOD -> METHODS[key];
+                case STATUS -> String.valueOf(key);
+                case NONE -> "all";
+            };
+        }
+    }
+
+    private static final class Query {
+
+        static final int UNKNOWN = -2;
+
+        final long from;
+        final long to;
+        final int endpoint;
+        final int method;
+        final StatusRange status;
+
+        Query(long from, long to, int endpoint, int method, StatusRange status) {
+            this.from = from;
+            this.to = to;
+            this.endpoint = endpoint;
+            this.method = method;
+            this.status = status;
+        }
+    }
+
+    // Appended to by the writer thread only; the volatile size publishes each row to readers
+    private static final class Chunk {
+
+        final long sequence;
+        final long[] timestamps = new long[CHUNK_ROWS];
+        final int[] endpoints = new int[CHUNK_ROWS];
+        final byte[] methods = new byte[CHUNK_ROWS];
+        final short[] statuses = new short[CHUNK_ROWS];
+        final int[] latencies = new int[CHUNK_ROWS];
+        long minTimestamp = Long.MAX_VALUE;
+        long maxTimestamp = Long.MIN_VALUE;
+        volatile int size;
+        int persistedRows;
+
+        Chunk(long sequence) {
+            this.sequence = sequence;
+        }
+
+        void append(long timestamp, int endpoint, byte method, short status, int latencyMicros) {
+            int row = size;
+            timestamps[row] = timestamp;
+            endpoints[row] = endpoint;
+            methods[row] = method;
+            statuses[row] = status;
+            latencies[row] = latencyMicros;
+            minTimestamp = Math.min(minTimestamp, timestamp);
+            maxTimestamp = Math.max(maxTimestamp, timestamp);
+            size = row + 1;
+        }
+
+        void truncate(int rows) {
+            minTimestamp = Long.MAX_VALUE;
+            maxTimestamp = Long.MIN_VALUE;
+            for (int row = 0; row < rows; row++) {
+                minTimestamp = Math.min(minTimestamp, timestamps[row]);
+                maxTimestamp = Math.max(maxTimestamp, timestamps[row]);
+            }
+            size = rows;
+            // The file still holds the longer chunk, so the next persist must rewrite it
+            persistedRows = -1;
+        }
+    }
+
+    private static final class Aggregation {
+
+        final long[] counts;
+        final long[] latencySums;
+        final long[] serverErrors;
+        final int[] maxLatencies;
+        // Allocated per key on first use, so sparse keys such as status codes stay cheap
+        final int[][] histograms;
+        int chunks;
+
+        Aggregation(int keys) {
+            counts = new long[keys];
+            latencySums = new long[keys];
+            serverErrors = new long[keys];
+            maxLatencies = new int[keys];
+            histograms = new int[keys][];
+        }
+
+        void add(int key, int latencyMicros, boolean serverError) {
+            counts[key]++;
+            latencySums[key] += latencyMicros;
+            if (serverError) {
+                serverErrors[key]++;
+            }
+            if (latencyMicros > maxLatencies[key]) {
+                maxLatencies[key] = latencyMicros;
+            }
+            int[] histogram = histograms[key];
+            if (histogram == null) {
+                histogram = histograms[key] = new int[BUCKETS];
+            }
+            histogram[bucket(latencyMicros)]++;
+        }
+
+        void merge(Aggregation other) {
+            for (int key = 0; key < counts.length; key++) {
+                if (other.counts[key] == 0) {
+                    continue;
+                }
+                counts[key] += other.counts[key];
+                latencySums[key] += other.latencySums[key];
+                serverErrors[key] += other.serverErrors[key];
+                maxLatencies[key] = Math.max(maxLatencies[key], other.maxLatencies[key]);
+                if (histograms[key] == null) {
+                    histograms[key] = other.histograms[key];
+                } else {
+                    for (int b = 0; b < BUCKETS; b++) {
+                        histograms[key][b] += other.histograms[key][b];
+                    }
+                }
+            }
+            chunks += other.chunks;
+        }
+
+        RequestSummaryGroup toGroup(int key, String label) {
+            long count = counts[key];
+            return RequestSummaryGroup.builder()
+                    .key(label)
+                    .count(count)
+                    .serverErrors(serverErrors[key])
+                    .errorRate((double) serverErrors[key] / count)
+                    .avgMs(latencySums[key] / (double) count / 1_000.0)
+                    .p50Ms(percentile(histograms[key], count, 0.50) / 1_000.0)
+                    .p90Ms(percentile(histograms[key], count, 0.90) / 1_000.0)
+                    .p99Ms(percentile(histograms[key], count, 0.99) / 1_000.0)
+                    .maxMs(maxLatencies[key] / 1_000.0)
+                    .build();
+        }
+
+        private static double percentile(int[] histogram, long total, double quantile) {
+            long rank = (long) Math.ceil(total * quantile);
+            long seen = 0;
+            for (int b = 0; b < histogram.length; b++) {
+                seen += histogram[b];
+                if (seen >= rank) {
+                    return bucketMidpoint(b);
+                }
+            }
+            return bucketMidpoint(histogram.length - 1);
+        }
+    }
+}
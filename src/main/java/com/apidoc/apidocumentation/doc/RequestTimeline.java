@@ -0,0 +1,34 @@
+package com.apidoc.apidocumentation.doc;
+
+// System.nanoTime() marks for one request, stamped by the filter, interceptor and body advices
+class RequestTimeline {
+
+    final long filterEntry;
+    // Set when ResponseCachingFilter owns the request and will dispatch the log once the response is written
+    final boolean deferredDispatch;
+    long preHandle;
+    long bodyRead;
+    long handlerEnd;
+    long captureStart;
+    long captureEnd;
+    ApiLog pendingLog;
+
+    RequestTimeline(long filterEntry, boolean deferredDispatch) {
+        this.filterEntry = filterEntry;
+        this.deferredDispatch = deferredDispatch;
+    }
+
+    PhaseTimings toTimings(long responseWritten) {
+        long handlerStart = bodyRead != 0 ? bodyRead : preHandle;
+        long handlerDone = handlerEnd != 0 ? handlerEnd : captureStart;
+        return PhaseTimings.builder()
+                .dispatchNanos(preHandle - filterEntry)
+                .bodyReadNanos(bodyRead != 0 ? bodyRead - preHandle : 0)
+                .handlerNanos(handlerDone - handlerStart)
+                .serializationNanos(captureStart - handlerDone)
+                .captureNanos(captureEnd - captureStart)
+                .responseWriteNanos(responseWritten - captureEnd)
+                .totalNanos(responseWritten - filterEntry)
+                .build();
+    }
+}
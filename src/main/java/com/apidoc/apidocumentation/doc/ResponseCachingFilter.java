@@ -7,7 +7,6 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.core.annotation.Order;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
-import org.springframework.web.util.ContentCachingResponseWrapper;
 
 import java.io.IOException;
 
@@ -15,21 +14,57 @@ import java.io.IOException;
 @Order(1)
 public class ResponseCachingFilter extends OncePerRequestFilter {
 
+    private final ApiLogDispatcher logDispatcher;
+    private final CapturePlanRegistry capturePlans;
+    private final CaptureBufferPool bufferPool;
+    private final CaptureSpillStore spillStore;
+
+    public ResponseCachingFilter(ApiLogDispatcher logDispatcher, CapturePlanRegistry capturePlans,
+                                 CaptureBufferPool bufferPool, CaptureSpillStore spillStore) {
+        this.logDispatcher = logDispatcher;
+        this.capturePlans = capturePlans;
+        this.bufferPool = bufferPool;
+        this.spillStore = spillStore;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Generated documentation files are streamed from disk and must not be buffered
+        if (request.getRequestURI().startsWith(request.getContextPath() + "/api-docs/files")) {
+            return true;
+        }
+        // Paths that can never be captured skip buffering altogether
+        return !capturePlans.mayCapture(request.getRequestURI());
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        ContentCachingResponseWrapper wrappedResponse = new ContentCachingResponseWrapper(response);
-
-
-        ContentCachingResponseWrapper cachedResponse = new ContentCachingResponseWrapper(response);
+        RequestTimeline timeline = new RequestTimeline(System.nanoTime(), true);
+        ApiLogContext.setTimeline(timeline);
+        // The body goes straight to the client; the interceptor decides per handler whether a copy is kept
+        CapturingResponseWrapper wrappedResponse = new CapturingResponseWrapper(response, bufferPool, spillStore);
+        // Request bodies are only teed when they may be large enough to spill; smaller ones are logged as bound
+        CapturingRequestWrapper wrappedRequest = spillStore.mayExceedThreshold(request.getContentLengthLong(), Integer.MAX_VALUE)
+                && !"GET".equalsIgnoreCase(request.getMethod())
+                ? new CapturingRequestWrapper(request, bufferPool, spillStore) : null;
         try {
-            filterChain.doFilter(request, wrappedResponse);
-            wrappedResponse.copyBodyToResponse();
+            filterChain.doFilter(wrappedRequest != null ? wrappedRequest : request, wrappedResponse);
         } finally {
-            cachedResponse.copyBodyToResponse();
+            wrappedResponse.finish();
+            if (wrappedRequest != null) {
+                wrappedRequest.finish();
+            }
+            ApiLogContext.clear();
+            // The interceptor leaves its log here so the response write is part of the timings
+            ApiLog log = timeline.pendingLog;
+            if (log != null) {
+                log.setTimings(timeline.toTimings(System.nanoTime()));
+                logDispatcher.dispatch(log);
+            }
         }
     }
 }
@@ -0,0 +1,25 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Daily statistics file written by the retention compactor
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionDay {
+    private LocalDate day;
+    // Last log folded into the statistics, so a step interrupted before deleting its logs does not count them twice
+    private LocalDateTime compactedThrough;
+    private String compactedThroughFile;
+    @Builder.Default
+    private List<RetentionStatistic> statistics = new ArrayList<>();
+}
@@ -0,0 +1,18 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// The log kept for one endpoint and status class once its full-payload period is over
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionSample {
+    // Log file name in the log directory
+    private String file;
+    // Null for logs written before capture levels existed, which were always full
+    private CaptureLevel captureLevel;
+}
@@ -0,0 +1,26 @@
+package com.apidoc.apidocumentation.doc;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+// Compacted requests for one endpoint and status class on one day; the histogram uses RequestSummaryStore buckets
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionStatistic {
+    private String method;
+    private String endpoint;
+    // e.g. 2xx
+    private String statusClass;
+    private long count;
+    private long latencyMicrosTotal;
+    private long maxLatencyMicros;
+    @Builder.Default
+    private Map<Integer, Long> histogram = new TreeMap<>();
+}
@@ -0,0 +1,469 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Per endpoint: the slowest requests of the last window and the most recent server errors. Their logs are
+// hard-linked into pinned/, so neither a replace-latest overwrite nor retention compaction removes them
+@Service
+public class SlowRequestTracker implements CheckpointedListener {
+
+    static final String PINNED_DIRECTORY = "pinned";
+    // The window is split into sub-windows with a top-K each; the oldest drops out whole as it ages
+    private static final int SUB_WINDOWS = 6;
+    private static final Comparator<TrackedRequest> FASTEST_FIRST = Comparator.comparingLong(TrackedRequest::getExecutionTime);
+
+    @Value("${apidoc.tracker.enabled:true}")
+    private boolean enabled;
+
+    @Value("${apidoc.tracker.top-k:50}")
+    private int topK;
+
+    @Value("${apidoc.tracker.window-minutes:60}")
+    private long windowMinutes;
+
+    @Value("${apidoc.tracker.recent-errors:20}")
+    private int recentErrors;
+
+    @Value("${apidoc.log.directory:api-logs}")
+    private String logDirectory;
+
+    private final EndpointKeyResolver keyResolver;
+    private final ApiLogFileService logService;
+    private final Map<String, EndpointRequests> endpoints = new ConcurrentHashMap<>();
+    // Logs referenced from a window or an error list; their pinned files are deleted with the last reference
+    private final Map<String, Pin> pins = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep = new AtomicLong();
+    private Path pinnedDirectory;
+    private long windowMillis;
+    private long subWindowMillis;
+
+    public SlowRequestTracker(EndpointKeyResolver keyResolver, ApiLogFileService logService) {
+        this.keyResolver = keyResolver;
+        this.logService = logService;
+    }
+
+    @PostConstruct
+    public void init() {
+        windowMillis = Math.max(SUB_WINDOWS, windowMinutes * 60_000);
+        subWindowMillis = windowMillis / SUB_WINDOWS;
+        pinnedDirectory = Paths.get(logDirectory, PINNED_DIRECTORY);
+        try {
+            Files.createDirectories(pinnedDirectory);
+        } catch (IOException e) {
+            System.err.println("Failed to create pinned log directory: " + e.getMessage());
+        }
+    }
+
+    // O(log K) per request: one heap offer against the current sub-window, plus a bounded insert for a 5xx
+    @Override
+    public void onLog(ApiLog log) {
+        if (!enabled || log.getId() == null || log.getMethod() == null || log.getEndpoint() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long at = capturedAt(log);
+        long latency = log.getExecutionTime() != null ? log.getExecutionTime() : 0;
+        boolean serverError = log.getStatusCode() != null && log.getStatusCode() >= 500;
+        EndpointRequests requests = endpoints.computeIfAbsent(
+                keyResolver.resolve(log.getMethod(), log.getEndpoint()), key -> new EndpointRequests());
+        synchronized (requests) {
+            TrackedRequest tracked = null;
+            if (topK > 0 && at >= now - windowMillis) {
+                Window window = requests.windowFor(at, subWindowMillis);
+                if (window.start < subWindowStart(at)) {
+                    release(window);
+                    window.start = subWindowStart(at);
+                }
+                // A log older than what its slot now holds belongs to a sub-window that already aged out
+                if (window.start == subWindowStart(at)
+                        && (window.slowest.size() < topK || latency > window.slowest.peek().getExecutionTime())) {
+                    tracked = track(log, at, latency);
+                    window.slowest.add(tracked);
+                    if (window.slowest.size() > topK) {
+                        unpin(window.slowest.poll());
+                    }
+                }
+            }
+            if (serverError && recentErrors > 0) {
+                List<TrackedRequest> errors = requests.errors;
+                // Kept oldest first; replayed logs may arrive out of order
+                if (errors.size() < recentErrors || at > errors.get(0).getCapturedAt()) {
+                    if (tracked == null) {
+                        tracked = track(log, at, latency);
+                    } else {
+                        pin(tracked, null);
+                    }
+                    int position = errors.size();
+                    while (position > 0 && errors.get(position - 1).getCapturedAt() > at) {
+                        position--;
+                    }
+                    errors.add(position, tracked);
+                    if (errors.size() > recentErrors) {
+                        unpin(errors.remove(0));
+                    }
+                }
+            }
+        }
+        sweepIfDue(now);
+    }
+
+    public Map<String, Object> query(String endpoint, String method, int limit, boolean payloads) {
+        String endpointFilter = endpoint == null || endpoint.isBlank() ? null : ":" + endpoint.trim();
+        String methodFilter = method == null || method.isBlank() ? null : method.trim().toUpperCase() + ":";
+        long now = System.currentTimeMillis();
+        Map<String, Object> byEndpoint = new TreeMap<>();
+        endpoints.forEach((key, requests) -> {
+            if ((endpointFilter != null && !key.endsWith(endpointFilter))
+                    || (methodFilter != null && !key.startsWith(methodFilter))) {
+                return;
+            }
+            List<TrackedRequest> slowest = slowest(requests, now, limit);
+            List<TrackedRequest> errors = recentServerErrors(requests, limit);
+            if (slowest.isEmpty() && errors.isEmpty()) {
+                return;
+            }
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("slowest", payloads ? withPayloads(slowest) : slowest);
+            entry.put("recentServerErrors", payloads ? withPayloads(errors) : errors);
+            byEndpoint.put(key, entry);
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("windowMinutes", windowMillis / 60_000.0);
+        result.put("topK", topK);
+        result.put("endpoints", byEndpoint);
+        return result;
+    }
+
+    public List<TrackedRequest> getSlowest(String method, String path, int limit) {
+        EndpointRequests requests = endpoints.get(keyResolver.key(method, path));
+        return requests != null ? slowest(requests, System.currentTimeMillis(), limit) : List.of();
+    }
+
+    public List<TrackedRequest> getRecentServerErrors(String method, String path, int limit) {
+        EndpointRequests requests = endpoints.get(keyResolver.key(method, path));
+        return requests != null ? recentServerErrors(requests, limit) : List.of();
+    }
+
+    // The full log of a tracked request, with body file paths pointing at the pinned copies; null once untracked
+    public ApiLog getPayload(String id) {
+        Pin pin = pins.get(id);
+        if (pin == null || pin.request.getPayloadFile() == null) {
+            return null;
+        }
+        ApiLog log = logService.readStoredLog(Paths.get(logDirectory, pin.request.getPayloadFile()));
+        if (log != null) {
+            String base = baseName(pin.request.getPayloadFile());
+            if (log.getRequestBodyFile() != null) {
+                log.getRequestBodyFile().setPath(base + ".request.body");
+            }
+            if (log.getResponseBodyFile() != null) {
+                log.getResponseBodyFile().setPath(base + ".response.body");
+            }
+        }
+        return log;
+    }
+
+    public int getPinnedCount() {
+        return pins.size();
+    }
+
+    @Override
+    public String checkpointName() {
+        return "tracker";
+    }
+
+    @Override
+    public JsonNode checkpointState(ObjectMapper objectMapper) {
+        Map<String, EndpointState> state = new HashMap<>();
+        endpoints.forEach((key, requests) -> {
+            synchronized (requests) {
+                EndpointState endpointState = new EndpointState();
+                for (Window window : requests.windows) {
+                    endpointState.slowest.addAll(window.slowest);
+                }
+                endpointState.errors.addAll(requests.errors);
+                state.put(key, endpointState);
+            }
+        });
+        return objectMapper.valueToTree(state);
+    }
+
+    // Pinned files that no restored entry references are left over from a crash and are removed
+    @Override
+    public void restoreCheckpoint(JsonNode state, ObjectMapper objectMapper) throws IOException {
+        endpoints.clear();
+        pins.clear();
+        if (state != null) {
+            Map<String, EndpointState> restored = objectMapper.readerFor(new TypeReference<HashMap<String, EndpointState>>() {
+            }).readValue(state);
+            long now = System.currentTimeMillis();
+            restored.forEach((key, endpointState) -> {
+                EndpointRequests requests = new EndpointRequests();
+                for (TrackedRequest request : endpointState.slowest) {
+                    if (request.getCapturedAt() >= now - windowMillis) {
+                        Window window = requests.windowFor(request.getCapturedAt(), subWindowMillis);
+                        window.start = subWindowStart(request.getCapturedAt());
+                        window.slowest.add(request);
+                        // The limits may have been lowered since the checkpoint was written
+                        if (window.slowest.size() > topK) {
+                            window.slowest.poll();
+                        }
+                    }
+                }
+                List<TrackedRequest> errors = endpointState.errors;
+                requests.errors.addAll(errors.subList(Math.max(0, errors.size() - recentErrors), errors.size()));
+                // Pinned only once trimmed: an entry dropped here may share its files with one that stays
+                for (Window window : requests.windows) {
+                    List<TrackedRequest> kept = new ArrayList<>(window.slowest);
+                    window.slowest.clear();
+                    kept.forEach(request -> window.slowest.add(pin(request, null)));
+                }
+                requests.errors.replaceAll(request -> pin(request, null));
+                endpoints.put(key, requests);
+            });
+        }
+        Set<String> referenced = new HashSet<>();
+        pins.values().forEach(pin -> {
+            if (pin.request.getPayloadFile() != null) {
+                referenced.add(baseName(pin.request.getPayloadFile()));
+            }
+        });
+        // A cluster merge swaps in a new store without the pinned directory
+        Files.createDirectories(pinnedDirectory);
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(pinnedDirectory)) {
+            for (Path path : files) {
+                String name = path.getFileName().toString();
+                int dot = name.indexOf('.');
+                if (!referenced.contains(PINNED_DIRECTORY + "/" + (dot > 0 ? name.substring(0, dot) : name))) {
+                    Files.deleteIfExists(path);
+                }
+            }
+        }
+    }
+
+    private List<TrackedRequest> slowest(EndpointRequests requests, long now, int limit) {
+        List<TrackedRequest> slowest = new ArrayList<>();
+        synchronized (requests) {
+            for (Window window : requests.windows) {
+                for (TrackedRequest request : window.slowest) {
+                    if (request.getCapturedAt() >= now - windowMillis) {
+                        slowest.add(request);
+                    }
+                }
+            }
+        }
+        slowest.sort(FASTEST_FIRST.reversed());
+        return slowest.size() > limit ? new ArrayList<>(slowest.subList(0, limit)) : slowest;
+    }
+
+    private List<TrackedRequest> recentServerErrors(EndpointRequests requests, int limit) {
+        List<TrackedRequest> errors;
+        synchronized (requests) {
+            errors = new ArrayList<>(requests.errors);
+        }
+        List<TrackedRequest> newestFirst = new ArrayList<>();
+        for (int i = errors.size() - 1; i >= 0 && newestFirst.size() < limit; i--) {
+            newestFirst.add(errors.get(i));
+        }
+        return newestFirst;
+    }
+
+    private List<TrackedRequest> withPayloads(List<TrackedRequest> requests) {
+        List<TrackedRequest> copies = new ArrayList<>(requests.size());
+        for (TrackedRequest request : requests) {
+            copies.add(request.toBuilder().payload(getPayload(request.getId())).build());
+        }
+        return copies;
+    }
+
+    // Expired sub-windows of endpoints that saw no traffic since still hold pins; released at most once per sub-window
+    private void sweepIfDue(long now) {
+        long due = nextSweep.get();
+        if (now < due || !nextSweep.compareAndSet(due, now + subWindowMillis)) {
+            return;
+        }
+        for (EndpointRequests requests : endpoints.values()) {
+            synchronized (requests) {
+                for (Window window : requests.windows) {
+                    if (window.start != Long.MIN_VALUE && window.start + subWindowMillis <= now - windowMillis) {
+                        release(window);
+                        window.start = Long.MIN_VALUE;
+                    }
+                }
+            }
+        }
+    }
+
+    private void release(Window window) {
+        window.slowest.forEach(this::unpin);
+        window.slowest.clear();
+    }
+
+    private TrackedRequest track(ApiLog log, long at, long latency) {
+        TrackedRequest request = TrackedRequest.builder()
+                .id(log.getId())
+                .method(log.getMethod())
+                .endpoint(log.getEndpoint())
+                .uri(log.getUri())
+                .statusCode(log.getStatusCode())
+                .executionTime(latency)
+                .timestamp(log.getTimestamp())
+                .capturedAt(at)
+                .build();
+        return pin(request, log);
+    }
+
+    // The first reference links the log and its body files into pinned/; later ones only count
+    private TrackedRequest pin(TrackedRequest request, ApiLog log) {
+        Pin pin = pins.compute(request.getId(), (id, existing) -> {
+            if (existing != null) {
+                existing.references++;
+                return existing;
+            }
+            if (log != null) {
+                request.setPayloadFile(link(log));
+            }
+            return new Pin(request);
+        });
+        return pin.request;
+    }
+
+    private void unpin(TrackedRequest request) {
+        pins.computeIfPresent(request.getId(), (id, pin) -> {
+            if (--pin.references > 0) {
+                return pin;
+            }
+            if (pin.request.getPayloadFile() != null) {
+                String base = baseName(pin.request.getPayloadFile());
+                try {
+                    Files.deleteIfExists(Paths.get(logDirectory, pin.request.getPayloadFile()));
+                    Files.deleteIfExists(Paths.get(logDirectory, base + ".request.body"));
+                    Files.deleteIfExists(Paths.get(logDirectory, base + ".response.body"));
+                } catch (IOException e) {
+                    System.err.println("Failed to unpin API log: " + e.getMessage());
+                }
+            }
+            return null;
+        });
+    }
+
+    // A hard link costs no copy and keeps the content even after the log directory entry is replaced or deleted
+    private String link(ApiLog log) {
+        if (log.getStoredFile() == null) {
+            return null;
+        }
+        String storedFile = log.getStoredFile();
+        String base = log.getId().replaceAll("[^a-zA-Z0-9-]", "_");
+        String pinnedFile = base + storedFile.substring(storedFile.lastIndexOf('.'));
+        try {
+            linkOrCopy(Paths.get(logDirectory, storedFile), pinnedDirectory.resolve(pinnedFile));
+            if (log.getRequestBodyFile() != null && log.getRequestBodyFile().getPath() != null) {
+                linkOrCopy(Paths.get(logDirectory, log.getRequestBodyFile().getPath()),
+                        pinnedDirectory.resolve(base + ".request.body"));
+            }
+            if (log.getResponseBodyFile() != null && log.getResponseBodyFile().getPath() != null) {
+                linkOrCopy(Paths.get(logDirectory, log.getResponseBodyFile().getPath()),
+                        pinnedDirectory.resolve(base + ".response.body"));
+            }
+            return PINNED_DIRECTORY + "/" + pinnedFile;
+        } catch (IOException e) {
+            System.err.println("Failed to pin API log: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        Files.deleteIfExists(target);
+        try {
+            Files.createLink(target, source);
+        } catch (NoSuchFileException e) {
+            throw e;
+        } catch (UnsupportedOperationException | IOException e) {
+            // No hard links here, e.g. another file store
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private long subWindowStart(long at) {
+        return at - Math.floorMod(at, subWindowMillis);
+    }
+
+    private static long capturedAt(ApiLog log) {
+        if (log.getCapturedAt() != 0) {
+            return log.getCapturedAt();
+        }
+        return log.getTimestamp() != null
+                ? log.getTimestamp().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+    }
+
+    // pinned/840ccd28-1f.json -> pinned/840ccd28-1f
+    private static String baseName(String payloadFile) {
+        int slash = payloadFile.lastIndexOf('/');
+        int dot = payloadFile.indexOf('.', slash + 1);
+        return dot > 0 ? payloadFile.substring(0, dot) : payloadFile;
+    }
+
+    private static final class EndpointRequests {
+        // One slot more than the window needs, so a full window is covered while the newest slot fills
+        final Window[] windows = new Window[SUB_WINDOWS + 1];
+        // Oldest first
+        final List<TrackedRequest> errors = new ArrayList<>();
+
+        EndpointRequests() {
+            for (int i = 0; i < windows.length; i++) {
+                windows[i] = new Window();
+            }
+        }
+
+        Window windowFor(long at, long subWindowMillis) {
+            return windows[(int) Math.floorMod(at / subWindowMillis, (long) windows.length)];
+        }
+    }
+
+    private static final class Window {
+        long start = Long.MIN_VALUE;
+        // Min-heap, so the fastest of the kept requests is the one to beat
+        final PriorityQueue<TrackedRequest> slowest = new PriorityQueue<>(FASTEST_FIRST);
+    }
+
+    private static final class Pin {
+        final TrackedRequest request;
+        int references = 1;
+
+        Pin(TrackedRequest request) {
+            this.request = request;
+        }
+    }
+
+    static final class EndpointState {
+        public List<TrackedRequest> slowest = new ArrayList<>();
+        public List<TrackedRequest> errors = new ArrayList<>();
+    }
+}
@@ -0,0 +1,35 @@
+package com.apidoc.apidocumentation.doc;
+
+// Status filter given as an exact code (404) or a class (5xx); ANY when not given
+final class StatusRange {
+
+    static final StatusRange ANY = new StatusRange(0, Integer.MAX_VALUE);
+
+    final int from;
+    final int to;
+
+    private StatusRange(int from, int to) {
+        this.from = from;
+        this.to = to;
+    }
+
+    static StatusRange parse(String status) {
+        if (status == null || status.isBlank()) {
+            return ANY;
+        }
+        String trimmed = status.trim().toLowerCase();
+        if (trimmed.matches("[1-5]xx")) {
+            int from = (trimmed.charAt(0) - '0') * 100;
+            return new StatusRange(from, from + 99);
+        }
+        if (trimmed.matches("\\d{3}")) {
+            int code = Integer.parseInt(trimmed);
+            return new StatusRange(code, code);
+        }
+        throw new IllegalArgumentException("status must be a code like 404 or a class like 5xx");
+    }
+
+    boolean contains(int statusCode) {
+        return statusCode >= from && statusCode <= to;
+    }
+}
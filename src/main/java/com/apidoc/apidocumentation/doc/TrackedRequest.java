@@ -0,0 +1,32 @@
+package com.apidoc.apidocumentation.doc;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One request held by the slow request tracker; the full log stays readable from payloadFile while it is tracked
+@Data
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TrackedRequest {
+    private String id;
+    private String method;
+    private String endpoint;
+    private String uri;
+    private Integer statusCode;
+    private long executionTime;
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+    private long capturedAt;
+    // Relative to the log directory, e.g. pinned/840ccd28-1f.json; null when the log was never persisted
+    private String payloadFile;
+    // Only set on query results that asked for payloads
+    private ApiLog payload;
+}